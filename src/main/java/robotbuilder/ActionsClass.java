@@ -26,6 +26,7 @@ import robotbuilder.actions.OpenAction;
 import robotbuilder.actions.RedoAction;
 import robotbuilder.actions.SaveAction;
 import robotbuilder.actions.SaveAsAction;
+import robotbuilder.actions.SaveAsProjectAction;
 import robotbuilder.actions.TogglePaletteViewAction;
 import robotbuilder.actions.UndoAction;
 import robotbuilder.actions.VerifyAction;
@@ -42,6 +43,7 @@ public class ActionsClass {
     private final AbstractAction newAction = new NewAction();
     private final AbstractAction saveAction = new SaveAction();
     private final AbstractAction saveAsAction = new SaveAsAction();
+    private final AbstractAction saveAsProjectAction = new SaveAsProjectAction();
     private final AbstractAction openAction = new OpenAction();
     private final AbstractAction gettingStartedAction = new GettingStartedAction();
     private final AbstractAction aboutAction = new AboutAction();
@@ -73,6 +75,7 @@ public class ActionsClass {
         fileMenu.add(newItem);
         fileMenu.add(saveItem);
         fileMenu.add(saveAsItem);
+        fileMenu.add(saveAsProjectAction);
         fileMenu.add(openItem);
         fileMenu.add(new JSeparator());
         fileMenu.add(exitAction);
@@ -0,0 +1,123 @@
+package robotbuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file in the temp directory that old undo states are appended to, see
+ * {@link SimpleHistory#setTiers}. States are read back through a memory
+ * mapping of a window of the file, which is mapped again whenever a state is
+ * outside of it, so the file can grow past what a single mapping can hold.
+ * States that are no longer needed are dropped by moving the ones that are
+ * to the start of the file. The file is deleted when RobotBuilder exits.
+ */
+final class HistoryJournal {
+
+    /**
+     * How much of the file is mapped at a time.
+     */
+    private static final long WINDOW = 64L << 20;
+
+    private final FileChannel channel;
+    private final long window;
+    private MappedByteBuffer mapped = null;
+    private long mappedStart = 0;
+    private long end = 0;
+
+    HistoryJournal() throws IOException {
+        this(WINDOW);
+    }
+
+    /**
+     * @param window How many bytes of the file to map at a time.
+     */
+    HistoryJournal(long window) throws IOException {
+        this.window = window;
+        Path path = Files.createTempFile("robotbuilder-history", ".journal");
+        File file = path.toFile();
+        file.deleteOnExit();
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Appends a state to the journal.
+     *
+     * @return Where it starts.
+     */
+    synchronized long append(byte[] bytes) throws IOException {
+        long offset = end;
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, offset + buffer.position());
+        }
+        end += bytes.length;
+        return offset;
+    }
+
+    /**
+     * Reads a state back.
+     *
+     * @param offset Where it starts.
+     * @param length How long it is.
+     */
+    synchronized byte[] read(long offset, int length) throws IOException {
+        if (offset + length > end) {
+            throw new IOException("Undo state " + offset + " is past the end of the journal");
+        }
+        if (mapped == null || offset < mappedStart || offset + length > mappedStart + mapped.capacity()) {
+            mappedStart = offset - offset % window;
+            if (offset + length - mappedStart > Integer.MAX_VALUE) {
+                mappedStart = offset;
+            }
+            long size = Math.max(Math.min(window, end - mappedStart), offset + length - mappedStart);
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, mappedStart, size);
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = mapped.duplicate();
+        view.position((int) (offset - mappedStart));
+        view.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Moves a state towards the start of the journal, over states that are
+     * no longer needed.
+     *
+     * @param offset Where it starts.
+     * @param length How long it is.
+     * @param to Where it starts from now on, at most where it started.
+     * @return Where it starts from now on.
+     */
+    synchronized long move(long offset, int length, long to) throws IOException {
+        if (to != offset) {
+            ByteBuffer buffer = ByteBuffer.wrap(read(offset, length));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, to + buffer.position());
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Forgets the states past a point. The file is written over from there
+     * instead of being truncated, since it may still be mapped.
+     *
+     * @param size How many bytes of states to keep.
+     */
+    synchronized void truncate(long size) {
+        end = Math.min(end, size);
+    }
+
+    /**
+     * @return How many bytes of states are in the journal.
+     */
+    synchronized long getSize() {
+        return end;
+    }
+}
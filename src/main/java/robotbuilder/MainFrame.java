@@ -63,6 +63,10 @@ public class MainFrame extends JFrame {
 
         properties = new PropertiesDisplay();
         robotTree = new RobotTree(properties, palette);
+        robotTree.setFileSnapshots(prefs.getBoolean("snapshots.enabled", false));
+        robotTree.setLazyLoading(prefs.getBoolean("lazy.loading", false));
+        robotTree.setAutosaveDelay(prefs.getInt("autosave.delay", 0));
+        robotTree.setUndoBudget(prefs.getLong("undo.budget", RobotTree.DEFAULT_UNDO_BUDGET));
         help = new JEditorPane();
         help.setEditable(false);
         help.addHyperlinkListener((HyperlinkEvent he) -> {
@@ -173,8 +177,15 @@ public class MainFrame extends JFrame {
         statusPanel.setStatus(status);
     }
 
+    /**
+     * Shows how big the undo history is on the right of the status bar.
+     */
+    public void setHistoryStatus(String status) {
+        statusPanel.setHistory(status);
+    }
+
     public void updateStatus() {
-        if (getCurrentRobotTree().isRobotValid()) {
+        if (getCurrentRobotTree().wasLoadedRobotValid()) {
             if (statusPanel.getStatus().equals(goodMessage)
                     || statusPanel.getStatus().equals(errorMessage)) {
                 setStatus(goodMessage);
@@ -80,20 +80,24 @@ public class PropertiesDisplay extends JPanel {
             propTable.getCellEditor().stopCellEditing();
         }
         currentComponent = node;
-        errorLabel.setVisible(!currentComponent.isValid());
+        updateErrorLabel();
         keys = currentComponent.getPropertyKeys();
         if (currentComponent.getBaseType().equals("Command Group")) {
             currentComponent.getRobotTree().getHistory().freeze(); // don't let the undo manager on the graph mess up the other one
             remove(currentDisplay);
             currentDisplay = new CommandGroupEditor();
             add(currentDisplay, BorderLayout.CENTER);
-            ((JSplitPane) getParent()).setDividerLocation(0.65);
+            if (getParent() instanceof JSplitPane) { // not embedded when running headless
+                ((JSplitPane) getParent()).setDividerLocation(0.65);
+            }
         } else {
             currentComponent.getRobotTree().getHistory().unfreeze();
             remove(currentDisplay);
             currentDisplay = new JScrollPane(propTable);
             add(currentDisplay, BorderLayout.CENTER);
-            ((JSplitPane) getParent()).setDividerLocation(0.5);
+            if (getParent() instanceof JSplitPane) { // not embedded when running headless
+                ((JSplitPane) getParent()).setDividerLocation(0.5);
+            }
         }
         update();
     }
@@ -131,6 +135,15 @@ public class PropertiesDisplay extends JPanel {
         }
     }
 
+    /**
+     * Shows the error label if the current component was invalid when it was
+     * last checked.
+     */
+    public void updateErrorLabel() {
+        RobotTree robot = currentComponent.getRobotTree();
+        errorLabel.setVisible(!(robot != null ? robot.wasValid(currentComponent) : currentComponent.isValid()));
+    }
+
     public void setEditName() {
         SwingUtilities.invokeLater(() -> {
             propTable.editCellAt(0, 1);
@@ -364,7 +377,7 @@ public class PropertiesDisplay extends JPanel {
                 }
             } else if (row > 0) {
                 final String key = keys.get(row - 1);
-                currentComponent.getProperty(key).setValueAndUpdate(val);
+                robot.transaction(() -> currentComponent.getProperty(key).setValueAndUpdate(val));
                 update();
             }
             MainFrame.getInstance().updateStatus();
@@ -3,6 +3,7 @@ package robotbuilder;
 
 import java.awt.EventQueue;
 
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -10,7 +11,9 @@ import javax.swing.JFrame;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 
+import robotbuilder.exporters.BatchExporter;
 import robotbuilder.extensions.Extensions;
+import robotbuilder.robottree.ProjectConverter;
 
 /**
  *
@@ -27,6 +30,14 @@ public class RobotBuilder {
     public static final String SAVE_FILE_TYPE = "yaml";
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--convert")) {
+            // Headless conversion, eg: --convert robot.yaml robot-project
+            System.exit(ProjectConverter.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        if (args.length > 0) {
+            // Headless export, eg: --exporters java,cpp robot.yaml
+            System.exit(BatchExporter.run(args));
+        }
         EventQueue.invokeLater(() -> {
             // All files should use the standard windows line endings to
             // maximize compatibility.
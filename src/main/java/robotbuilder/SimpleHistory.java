@@ -1,23 +1,103 @@
-
 package robotbuilder;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.function.ToLongFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 
 /**
  * A helper class used to keep track of changes to the
  * {@link robotbuilder.robottree.RobotTree} and undo or redo them as necessary.
+ * The history can be given a memory budget, in which case the oldest states
+ * are forgotten once the states it holds are bigger than that.
+ *
+ * <p>
+ * Old states are rarely undone to, so the history can also be told how to
+ * turn states into bytes with {@link #setTiers}. Then only the newest states
+ * are kept as they are, older ones are compressed, and the oldest compressed
+ * ones are moved out of memory into a journal file in the temp directory.
+ * They are read back whenever they are undone to.
  *
  * @author Sam Carlberg
  */
 public class SimpleHistory<E> {
 
+    /**
+     * Turns states into bytes and back, so that they can be compressed and
+     * written to disk.
+     */
+    public interface Codec<E> {
+
+        byte[] encode(E state) throws IOException;
+
+        E decode(byte[] bytes) throws IOException;
+    }
+
+    /**
+     * The memory a state that isn't kept as it is still takes.
+     */
+    private static final long SLOT_OVERHEAD = 48;
+
     private boolean frozen = false;
 
-    private Deque<E> past = new LinkedList<>();
+    private Deque<Slot<E>> past = new LinkedList<>();
     private E present = null;
     private Deque<E> future = new LinkedList<>();
 
+    private final ToLongFunction<? super E> sizeOf;
+    private long budget;
+    private long size = 0;
+
+    private Codec<E> codec = null;
+    private int hotStates = Integer.MAX_VALUE;
+    private long compressedLimit = Long.MAX_VALUE;
+    private long compressedSize = 0;
+    private HistoryJournal journal = null;
+
+    /**
+     * Creates a history that keeps every state.
+     */
+    public SimpleHistory() {
+        this(state -> 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a history that forgets the oldest states once the states it
+     * holds are bigger than a budget. The current state is always kept.
+     *
+     * @param sizeOf Gives the size of a state.
+     * @param budget The most the sizes of the states may add up to.
+     */
+    public SimpleHistory(ToLongFunction<? super E> sizeOf, long budget) {
+        this.sizeOf = sizeOf;
+        this.budget = budget;
+    }
+
+    /**
+     * Stores older states compressed, and the oldest of those on disk. States
+     * that are on disk only count towards the budget with a few bytes.
+     *
+     * @param codec Turns states into bytes and back.
+     * @param hotStates How many of the newest states to keep as they are.
+     * @param compressedLimit How many bytes of compressed states to keep in
+     * memory before the oldest ones are moved to disk.
+     */
+    public void setTiers(Codec<E> codec, int hotStates, long compressedLimit) {
+        this.codec = codec;
+        this.hotStates = hotStates;
+        this.compressedLimit = compressedLimit;
+        demote();
+    }
+
     /**
      * Adds the given state to the history.
      *
@@ -26,10 +106,28 @@ public class SimpleHistory<E> {
     public void addState(E state) {
         if (!frozen && state != null && state.getClass() != null) {
             if (present != null) {
-                past.addLast(present);
+                past.addLast(new Slot<>(present, sizeOf.applyAsLong(present)));
             }
             present = state;
+            size += sizeOf.applyAsLong(state);
+            forgetFuture();
+            demote();
+            trim();
+        }
+    }
+
+    /**
+     * Replaces the current state, for a change that carries on the last one.
+     * Redo is no longer possible afterwards.
+     *
+     * @param state The state that replaces the current state.
+     */
+    public void replaceCurrentState(E state) {
+        if (!frozen && state != null && present != null) {
+            size += sizeOf.applyAsLong(state) - sizeOf.applyAsLong(present);
+            present = state;
             forgetFuture();
+            trim();
         }
     }
 
@@ -47,8 +145,16 @@ public class SimpleHistory<E> {
      */
     public E undo() {
         if (canUndo()) {
+            Slot<E> slot = past.pollLast();
+            size -= slot.memory;
+            if (slot.compressed != null) {
+                compressedSize -= slot.compressed.length;
+            }
+            E state = slot.get();
             future.addLast(present);
-            present = past.pollLast();
+            present = state;
+            size += sizeOf.applyAsLong(state);
+            compactJournal();
         }
         return getCurrentState();
     }
@@ -58,8 +164,9 @@ public class SimpleHistory<E> {
      */
     public E redo() {
         if (canRedo()) {
-            past.addLast(present);
+            past.addLast(new Slot<>(present, sizeOf.applyAsLong(present)));
             present = future.pollLast();
+            demote();
         }
         return getCurrentState();
     }
@@ -72,6 +179,124 @@ public class SimpleHistory<E> {
         return future.size();
     }
 
+    /**
+     * @return How much memory the states in the history take up, going by
+     * their sizes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return How many bytes of states have been moved to disk.
+     */
+    public long getDiskSize() {
+        return journal == null ? 0 : journal.getSize();
+    }
+
+    /**
+     * Changes the memory budget, forgetting the oldest states if they don't
+     * fit anymore.
+     *
+     * @param budget The most the sizes of the states may add up to.
+     */
+    public void setBudget(long budget) {
+        this.budget = budget;
+        trim();
+    }
+
+    /**
+     * Forgets the oldest states until the history fits in its budget.
+     */
+    private void trim() {
+        while (size > budget && !past.isEmpty()) {
+            Slot<E> slot = past.pollFirst();
+            size -= slot.memory;
+            if (slot.compressed != null) {
+                compressedSize -= slot.compressed.length;
+            }
+        }
+        compactJournal();
+    }
+
+    /**
+     * Compresses the state that just dropped out of the newest states, and
+     * moves the oldest compressed states to disk while they take up too much
+     * memory.
+     */
+    private void demote() {
+        if (codec == null) {
+            return;
+        }
+        int newer = 0;
+        for (Iterator<Slot<E>> i = past.descendingIterator(); i.hasNext();) {
+            Slot<E> slot = i.next();
+            if (newer++ < hotStates) {
+                continue;
+            }
+            if (slot.state == null) {
+                break; // The older ones were demoted before
+            }
+            try {
+                long before = slot.memory;
+                slot.compress(codec);
+                size += slot.memory - before;
+                compressedSize += slot.compressed.length;
+            } catch (IOException ex) {
+                Logger.getLogger(SimpleHistory.class.getName()).log(Level.WARNING, "Could not compress an undo state", ex);
+                return;
+            }
+        }
+
+        for (Iterator<Slot<E>> i = past.iterator(); i.hasNext() && compressedSize > compressedLimit;) {
+            Slot<E> slot = i.next();
+            if (slot.compressed == null) {
+                continue;
+            }
+            try {
+                if (journal == null) {
+                    journal = new HistoryJournal();
+                }
+                long before = slot.memory;
+                int length = slot.compressed.length;
+                slot.spill(journal);
+                size += slot.memory - before;
+                compressedSize -= length;
+            } catch (IOException ex) {
+                Logger.getLogger(SimpleHistory.class.getName()).log(Level.WARNING, "Could not move undo states to disk", ex);
+                compressedLimit = Long.MAX_VALUE; // Keep them in memory from now on
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves the states that are still on disk to the start of the journal
+     * once the ones that were forgotten or undone take up more of it than
+     * they do, so the file stays at most twice as big as what is in it.
+     */
+    private void compactJournal() {
+        if (journal == null) {
+            return;
+        }
+        long live = past.stream().filter(slot -> slot.journal != null).mapToLong(slot -> slot.length).sum();
+        if (journal.getSize() - live <= live) {
+            return;
+        }
+        try {
+            long end = 0;
+            for (Slot<E> slot : past) {
+                if (slot.journal != null) { // The oldest come first in the file too
+                    slot.offset = journal.move(slot.offset, slot.length, end);
+                    end += slot.length;
+                }
+            }
+            journal.truncate(end);
+        } catch (IOException ex) {
+            Logger.getLogger(SimpleHistory.class.getName()).log(Level.WARNING, "Could not compact the undo journal", ex);
+        }
+    }
+
     /**
      * Marks if it is possible to undo an action. Essentially, if the undo list
      * is empty, this will return false.
@@ -97,6 +322,9 @@ public class SimpleHistory<E> {
      */
     public void forgetFuture() {
         if (!frozen) {
+            for (E state : future) {
+                size -= sizeOf.applyAsLong(state);
+            }
             future.clear();
         }
     }
@@ -114,4 +342,68 @@ public class SimpleHistory<E> {
     public void unfreeze() {
         frozen = false;
     }
+
+    /**
+     * A past state, which is kept as it is, compressed, or in the journal.
+     */
+    private static final class Slot<E> {
+
+        private E state;
+        private Codec<E> codec;
+        private byte[] compressed;
+        private HistoryJournal journal;
+        private long offset;
+        private int length;
+        /**
+         * How much it counts towards the budget.
+         */
+        private long memory;
+
+        Slot(E state, long memory) {
+            this.state = state;
+            this.memory = memory;
+        }
+
+        void compress(Codec<E> codec) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DeflaterOutputStream out = new DeflaterOutputStream(bytes)) {
+                out.write(codec.encode(state));
+            }
+            compressed = bytes.toByteArray();
+            this.codec = codec;
+            state = null;
+            memory = SLOT_OVERHEAD + compressed.length;
+        }
+
+        void spill(HistoryJournal journal) throws IOException {
+            offset = journal.append(compressed);
+            length = compressed.length;
+            this.journal = journal;
+            compressed = null;
+            memory = SLOT_OVERHEAD;
+        }
+
+        E get() {
+            if (state != null) {
+                return state;
+            }
+            try {
+                byte[] bytes = compressed != null ? compressed : journal.read(offset, length);
+                return codec.decode(inflate(bytes));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private static byte[] inflate(byte[] compressed) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+                byte[] buffer = new byte[4096];
+                for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                    out.write(buffer, 0, read);
+                }
+            }
+            return out.toByteArray();
+        }
+    }
 }
@@ -12,6 +12,7 @@ import javax.swing.JLabel;
 public class StatusPanel extends Box {
 
     JLabel statusLabel;
+    JLabel historyLabel;
 
     public StatusPanel() {
         super(BoxLayout.X_AXIS);
@@ -19,12 +20,19 @@ public class StatusPanel extends Box {
         add(Box.createHorizontalStrut(10));
         add(statusLabel);
         add(Box.createHorizontalGlue());
+        historyLabel = new JLabel();
+        add(historyLabel);
+        add(Box.createHorizontalStrut(10));
     }
 
     public void setStatus(String status) {
         statusLabel.setText(status);
     }
 
+    public void setHistory(String history) {
+        historyLabel.setText(history);
+    }
+
     public String getStatus() {
         return statusLabel.getText();
     }
@@ -24,6 +24,6 @@ public class SaveAction extends AbstractAction {
 
     @Override
     public void actionPerformed(ActionEvent ae) {
-        MainFrame.getInstance().getCurrentRobotTree().save();
+        MainFrame.getInstance().getCurrentRobotTree().saveInBackground();
     }
 }
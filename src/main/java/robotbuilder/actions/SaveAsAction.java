@@ -43,7 +43,7 @@ public class SaveAsAction extends AbstractAction {
                 filePath += "." + RobotBuilder.SAVE_FILE_TYPE;
             }
 
-            MainFrame.getInstance().getCurrentRobotTree().save(filePath);
+            MainFrame.getInstance().getCurrentRobotTree().saveInBackground(filePath);
         }
     }
 
@@ -0,0 +1,33 @@
+package robotbuilder.actions;
+
+import java.awt.event.ActionEvent;
+
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+import javax.swing.JFileChooser;
+
+import robotbuilder.MainFrame;
+
+/**
+ * Saves the robot to a project directory, with a file for each subsystem,
+ * command and the operator interface.
+ */
+public class SaveAsProjectAction extends AbstractAction {
+
+    JFileChooser fileChooser = new JFileChooser();
+
+    public SaveAsProjectAction() {
+        putValue(Action.NAME, "Save as project directory...");
+        putValue(Action.SHORT_DESCRIPTION, "Save robot map to a directory with a file for each subsystem and command");
+        fileChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent ae) {
+        int result = fileChooser.showSaveDialog(MainFrame.getInstance());
+        if (result == JFileChooser.APPROVE_OPTION) {
+            MainFrame.getInstance().getCurrentRobotTree().saveAsProject(fileChooser.getSelectedFile());
+        }
+    }
+
+}
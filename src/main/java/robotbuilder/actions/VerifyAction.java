@@ -20,7 +20,7 @@ public class VerifyAction extends AbstractAction {
 
     @Override
     public void actionPerformed(ActionEvent ae) {
-        String message = MainFrame.getInstance().getCurrentRobotTree().getRoot().getErrorMessage();
+        String message = MainFrame.getInstance().getCurrentRobotTree().getRobotErrorMessage();
 
         if (message.equals("")) {
             JOptionPane.showMessageDialog(MainFrame.getInstance(),
@@ -0,0 +1,79 @@
+package robotbuilder.data;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The claims of a {@link UniqueValidator}, indexed both ways: from a set of
+ * values to whoever claimed them, and from a claimant to the values it
+ * claimed. Claiming, releasing and looking up a claim take the same time no
+ * matter how many claims there are.
+ *
+ * @param <C> The claimants.
+ */
+final class ClaimStore<C> {
+
+    private final Map<Map<String, Object>, C> claimants = new HashMap<>();
+    private final Map<C, Map<String, Object>> claims = new HashMap<>();
+
+    /**
+     * Claims a set of values, giving up whatever the claimant held before.
+     *
+     * @param values The values, which must not change afterwards.
+     * @param claimant Who claims them.
+     * @return False if someone else holds them, in which case the claimant
+     * is left without a claim.
+     */
+    boolean claim(Map<String, Object> values, C claimant) {
+        release(claimant);
+        C holder = claimants.get(values);
+        if (holder != null) {
+            return false;
+        }
+        Map<String, Object> key = Collections.unmodifiableMap(values);
+        claimants.put(key, claimant);
+        claims.put(claimant, key);
+        return true;
+    }
+
+    /**
+     * Gives up the claim of a claimant, if it has one.
+     *
+     * @return The values it held, or null.
+     */
+    Map<String, Object> release(C claimant) {
+        Map<String, Object> values = claims.remove(claimant);
+        if (values != null) {
+            claimants.remove(values);
+        }
+        return values;
+    }
+
+    boolean hasClaim(C claimant) {
+        return claims.containsKey(claimant);
+    }
+
+    boolean isClaimed(Map<String, ?> values) {
+        return claimants.containsKey(values);
+    }
+
+    /**
+     * @return Who holds a set of values, or null if they are free.
+     */
+    C getClaimant(Map<String, Object> values) {
+        return claimants.get(values);
+    }
+
+    /**
+     * @return Every set of values that is claimed.
+     */
+    Set<Map<String, Object>> getClaimedValues() {
+        return Collections.unmodifiableSet(claimants.keySet());
+    }
+
+    int size() {
+        return claims.size();
+    }
+}
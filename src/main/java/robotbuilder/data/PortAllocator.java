@@ -0,0 +1,147 @@
+package robotbuilder.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds free ports for a {@link UniqueValidator}.
+ *
+ * <p>
+ * The choices of the fields span a domain of every combination of values,
+ * numbered with the first field changing fastest. A bitset marks which
+ * combinations are claimed, so the first free one is a single scan for a
+ * clear bit instead of trying combinations one by one. Components can offer
+ * different choices for the same fields, so there is a domain for each set of
+ * choices. A domain is built from the claims the first time it is used and is
+ * kept up to date as values are claimed and released after that.
+ */
+final class PortAllocator {
+
+    private final List<String> fields;
+    private final ClaimStore<?> claims;
+    private final Map<List<List<String>>, Domain> domains = new HashMap<>();
+
+    /**
+     * @param fields The fields of the validator.
+     * @param claims The claims of the validator.
+     */
+    PortAllocator(List<String> fields, ClaimStore<?> claims) {
+        this.fields = new ArrayList<>(fields);
+        this.claims = claims;
+    }
+
+    /**
+     * Marks a set of values that was just claimed.
+     */
+    void claimed(Map<String, ?> values) {
+        for (Domain domain : domains.values()) {
+            int index = domain.indexOf(values);
+            if (index >= 0) {
+                domain.taken.set(index);
+            }
+        }
+    }
+
+    /**
+     * Marks a set of values that was just released.
+     */
+    void released(Map<String, ?> values) {
+        for (Domain domain : domains.values()) {
+            int index = domain.indexOf(values);
+            if (index >= 0) {
+                domain.taken.clear(index);
+            }
+        }
+    }
+
+    /**
+     * Finds the first combination of choices that isn't claimed.
+     *
+     * @param choices The choices of each field.
+     * @return The values of the fields, or null if every combination is
+     * claimed.
+     */
+    Map<String, String> next(Map<String, String[]> choices) {
+        List<List<String>> key = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            key.add(new ArrayList<>(new LinkedHashSet<>(Arrays.asList(choices.get(field)))));
+        }
+        Domain domain = domains.computeIfAbsent(key, this::createDomain);
+        int free = domain.taken.nextClearBit(0);
+        if (free >= domain.size) {
+            return null;
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            List<String> fieldChoices = key.get(i);
+            values.put(fields.get(i), fieldChoices.get(free % fieldChoices.size()));
+            free /= fieldChoices.size();
+        }
+        return values;
+    }
+
+    private Domain createDomain(List<List<String>> choices) {
+        Domain domain = new Domain(choices);
+        for (Map<String, Object> values : claims.getClaimedValues()) {
+            int index = domain.indexOf(values);
+            if (index >= 0) {
+                domain.taken.set(index);
+            }
+        }
+        return domain;
+    }
+
+    /**
+     * The combinations of one set of choices.
+     */
+    private final class Domain {
+
+        /**
+         * Where each choice is in the choices of its field.
+         */
+        private final List<Map<Object, Integer>> positions = new ArrayList<>();
+        private final List<Integer> sizes = new ArrayList<>();
+        private final int size;
+        private final BitSet taken = new BitSet();
+
+        Domain(List<List<String>> choices) {
+            int combinations = 1;
+            for (List<String> fieldChoices : choices) {
+                Map<Object, Integer> position = new HashMap<>();
+                for (int i = 0; i < fieldChoices.size(); i++) {
+                    position.put(fieldChoices.get(i), i);
+                }
+                positions.add(position);
+                sizes.add(fieldChoices.size());
+                combinations = Math.multiplyExact(combinations, fieldChoices.size());
+            }
+            size = combinations;
+        }
+
+        /**
+         * @return The number of a combination, or -1 if it isn't one of these
+         * choices.
+         */
+        int indexOf(Map<String, ?> values) {
+            if (values.size() != fields.size()) {
+                return -1;
+            }
+            int index = 0;
+            int stride = 1;
+            for (int i = 0; i < fields.size(); i++) {
+                Integer position = positions.get(i).get(values.get(fields.get(i)));
+                if (position == null) {
+                    return -1;
+                }
+                index += position * stride;
+                stride *= sizes.get(i);
+            }
+            return index;
+        }
+    }
+}
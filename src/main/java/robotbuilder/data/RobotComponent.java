@@ -3,12 +3,15 @@ package robotbuilder.data;
 
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import java.util.function.BiPredicate;
 
-import javax.swing.JFileChooser;
 import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.MutableTreeNode;
+import javax.swing.tree.TreeNode;
 
 import lombok.Getter;
 
@@ -30,6 +33,12 @@ public class RobotComponent extends DefaultMutableTreeNode {
 
     private RobotComponentModel model;
 
+    /**
+     * The saved properties and children of this component while they haven't
+     * been loaded, null once they have.
+     */
+    private UnloadedComponent unloaded;
+
     public RobotComponent() {
         super();
         model = new RobotComponentModel();
@@ -70,7 +79,121 @@ public class RobotComponent extends DefaultMutableTreeNode {
         this(name, Palette.getInstance().getItem(type), robot);
     }
 
+    /**
+     * Creates a component whose properties and children are only built from
+     * their saved values once they are first used.
+     *
+     * @param unloaded The saved component.
+     * @param robot The RobotTree that this will be created in.
+     * @return The component.
+     */
+    public static RobotComponent unloaded(UnloadedComponent unloaded, RobotTree robot) {
+        RobotComponent component = new RobotComponent();
+        component.setRobotTree(robot);
+        component.setName(unloaded.getName());
+        component.setBaseType(unloaded.getBaseType());
+        component.setProperties(new LinkedHashMap<>());
+        component.unloaded = unloaded;
+        return component;
+    }
+
+    /**
+     * @return False if the properties and children of this component haven't
+     * been built yet.
+     */
+    public boolean isLoaded() {
+        return unloaded == null;
+    }
+
+    /**
+     * @return The saved properties and children of this component, or null
+     * if it has been loaded.
+     */
+    public UnloadedComponent getUnloaded() {
+        return unloaded;
+    }
+
+    /**
+     * Builds the properties and children of this component from their saved
+     * values if that hasn't happened yet, and checks them against the rest of
+     * the robot like a freshly opened file.
+     */
+    public void load() {
+        if (unloaded == null) {
+            return;
+        }
+        UnloadedComponent saved = unloaded;
+        unloaded = null;
+        build(saved);
+        walk(component -> component.getProperties().values().forEach(Property::update));
+        if (robot != null) {
+            robot.componentAdded(this);
+        }
+    }
+
+    private void build(UnloadedComponent saved) {
+        setPropertyValues(saved.getValues());
+        for (UnloadedComponent child : saved.getChildren()) {
+            RobotComponent component = new RobotComponent();
+            component.setRobotTree(robot);
+            component.setName(child.getName());
+            component.setBaseType(child.getBaseType());
+            component.build(child);
+            add(component);
+        }
+    }
+
+    /**
+     * Replaces the properties with copies of the ones from the palette that
+     * have the given values. Properties keep the order they were saved in and
+     * ones that are no longer in the palette are dropped.
+     *
+     * @param values The saved values of the properties.
+     */
+    public void setPropertyValues(Map<String, Object> values) {
+        Map<String, Property> properties = new LinkedHashMap<>();
+        values.keySet().forEach(name -> properties.put(name, null));
+        setProperties(properties);
+        for (String propertyName : getBase().getPropertiesKeys()) {
+            Object value = values.get(propertyName);
+            Property property = getBase().getProperty(propertyName).copy();
+            if (robot != null) {
+                property.setComponent(this); // Selections look up their value in the tree
+            }
+            // Lists the palette gave the copy are kept if they are unchanged,
+            // they can be shared with other properties like in a new component
+            if (value != null && !(value instanceof List && value.equals(property.getValue()))) {
+                property.setValue(value);
+            }
+            property.setComponent(this); // Parent properties are named after the parent
+            properties.put(propertyName, property);
+        }
+        properties.values().removeIf(property -> property == null);
+    }
+
+    /**
+     * Checks the components below this one that haven't been loaded, without
+     * loading them.
+     *
+     * @param test Given the full name and the palette component of each.
+     * @return Whether the test passed for any of them.
+     */
+    public boolean anyUnloaded(BiPredicate<String, PaletteComponent> test) {
+        if (unloaded != null) {
+            return unloaded.anyDescendant(getSubsystem(), test);
+        }
+        if (children != null) {
+            for (Object child : children) {
+                if (((RobotComponent) child).anyUnloaded(test)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     public Property getProperty(String key) {
+        load();
         return model.getProperties().get(key);
     }
 
@@ -80,7 +203,7 @@ public class RobotComponent extends DefaultMutableTreeNode {
     public String getPropertyAbsolutePath(String key) {
         Property prop = getProperty(key);
         if (prop instanceof FileProperty) {
-            return ((JFileChooser) prop.getDisplayValue()).getSelectedFile().getAbsolutePath();
+            return ((FileProperty) prop).getFile().getAbsolutePath();
         } else {
             return ""; // TODO: No path. Should throw error
         }
@@ -91,15 +214,25 @@ public class RobotComponent extends DefaultMutableTreeNode {
     }
 
     public boolean isValid() {
-        return model.getProperties().values().stream()
+        return getProperties().values().stream()
                 .peek(Property::update)
                 .allMatch(Property::isValid);
     }
 
     @Override
     public boolean equals(Object oth) {
+        if (oth == this) {
+            return true;
+        }
         if (oth instanceof RobotComponent) {
             RobotComponent other = (RobotComponent) oth;
+            if (!isLoaded() || !other.isLoaded()) {
+                // Comparing what is in them would load them, like when the
+                // tree looks for the nodes it had expanded
+                return unloaded == other.unloaded
+                        && getFullName().equals(other.getFullName())
+                        && getBaseType().equals(other.getBaseType());
+            }
             boolean equal = getFullName().equals(other.getFullName())
                     && getBaseType().equals(other.getBaseType())
                     && getProperties().equals(other.getProperties())
@@ -134,6 +267,7 @@ public class RobotComponent extends DefaultMutableTreeNode {
             robot.removeName(getFullName());
             model.setName(name);
             robot.addName(getFullName());
+            robot.componentRenamed(this);
         } else {
             model.setName(name);
         }
@@ -144,10 +278,11 @@ public class RobotComponent extends DefaultMutableTreeNode {
     }
 
     public void setProperty(String key, Object val) {
-        model.getProperties().get(key).setValueAndUpdate(val);
+        getProperty(key).setValueAndUpdate(val);
     }
 
     public Map<String, Property> getProperties() {
+        load();
         return model.getProperties();
     }
 
@@ -156,6 +291,7 @@ public class RobotComponent extends DefaultMutableTreeNode {
     }
 
     public Vector<RobotComponent> getChildren() {
+        load();
         if (children != null) {
             return children;
         } else {
@@ -167,6 +303,76 @@ public class RobotComponent extends DefaultMutableTreeNode {
         this.children = children;
     }
 
+    @Override
+    public int getChildCount() {
+        load();
+        return super.getChildCount();
+    }
+
+    @Override
+    public TreeNode getChildAt(int index) {
+        load();
+        return super.getChildAt(index);
+    }
+
+    @Override
+    public Enumeration children() {
+        load();
+        return super.children();
+    }
+
+    /**
+     * Tells the robot about the child, so that it is validated.
+     */
+    @Override
+    public void insert(MutableTreeNode child, int index) {
+        super.insert(child, index);
+        if (robot != null && child instanceof RobotComponent) {
+            robot.componentAdded((RobotComponent) child);
+        }
+    }
+
+    /**
+     * Tells the robot that the child is gone, so that it is no longer
+     * validated.
+     */
+    @Override
+    public void remove(int index) {
+        TreeNode child = getChildAt(index);
+        super.remove(index);
+        if (robot != null && child instanceof RobotComponent) {
+            robot.componentRemoved(this, (RobotComponent) child);
+        }
+    }
+
+    /**
+     * Components that haven't been loaded yet are not leaves if they will have
+     * children, without loading them.
+     */
+    @Override
+    public boolean isLeaf() {
+        if (unloaded != null) {
+            return unloaded.getChildren().isEmpty();
+        }
+        return super.isLeaf();
+    }
+
+    /**
+     * Walks the components that have been loaded without loading any others.
+     * Components that haven't been loaded are passed to the walker, but not
+     * their children, and should only be asked for their name and type.
+     *
+     * @param walker The walker.
+     */
+    public void walkLoaded(RobotWalker walker) {
+        if (unloaded == null && children != null) {
+            for (Object child : children) {
+                ((RobotComponent) child).walkLoaded(walker);
+            }
+        }
+        walker.handleRobotComponent(this);
+    }
+
     public String getBaseType() {
         return model.getBase().getName();
     }
@@ -243,6 +449,9 @@ public class RobotComponent extends DefaultMutableTreeNode {
     }
 
     public Vector<String> getChildrenOfTypeNames(String type) {
+        if (unloaded != null) {
+            return getUnloadedNames((name, base) -> type.equals(base.getType()));
+        }
         if (children == null) {
             return new Vector<>();
         }
@@ -257,6 +466,9 @@ public class RobotComponent extends DefaultMutableTreeNode {
     }
 
     public Vector<String> getChildrenOfComponentNames(String componentName) {
+        if (unloaded != null) {
+            return getUnloadedNames((name, base) -> componentName.equals(base.getName()));
+        }
         if (children == null) {
             return new Vector<>();
         }
@@ -270,6 +482,17 @@ public class RobotComponent extends DefaultMutableTreeNode {
         return names;
     }
 
+    private Vector<String> getUnloadedNames(BiPredicate<String, PaletteComponent> test) {
+        Vector<String> names = new Vector<>();
+        anyUnloaded((name, base) -> {
+            if (test.test(name, base)) {
+                names.add(name);
+            }
+            return false;
+        });
+        return names;
+    }
+
     public void setRobotTree(RobotTree robot) {
         this.robot = robot;
     }
@@ -284,29 +507,45 @@ public class RobotComponent extends DefaultMutableTreeNode {
         }
     }
 
+    /**
+     * @return The errors of this component and everything in it, which loads
+     * them. See {@link RobotTree#getErrorMessage(RobotComponent)} for errors
+     * that are kept between calls.
+     */
     public String getErrorMessage() {
-        String message = "";
-        message = getPropertyKeys().stream()
-                .map(this::getProperty)
-                .filter(property -> !property.isValid())
-                .map(property -> property.getName() + ": " + property.getErrorMessage() + "\n")
-                .reduce(message, String::concat);
+        StringBuilder message = new StringBuilder(getOwnErrorMessage());
         if (children != null) {
             for (Object comp : children) {
                 String m = ((RobotComponent) comp).getErrorMessage();
-                if (m != null && !m.equals("")) {
-                    message += "" + ((RobotComponent) comp).getFullName() + ":\n" + m;
+                if (!m.isEmpty()) {
+                    message.append(((RobotComponent) comp).getFullName()).append(":\n").append(m);
                 }
             }
         }
-        return message;
+        return message.toString();
+    }
+
+    /**
+     * @return The errors of the properties of this component, without the
+     * ones of its children.
+     */
+    public String getOwnErrorMessage() {
+        load();
+        StringBuilder message = new StringBuilder();
+        for (String key : getPropertyKeys()) {
+            Property property = getProperty(key);
+            if (!property.isValid()) {
+                message.append(property.getName()).append(": ").append(property.getErrorMessage()).append("\n");
+            }
+        }
+        return message.toString();
     }
 
     /**
      * Handle being deleted by cleaning up validators and so forth.
      */
     public void handleDelete() {
-        model.getProperties().values().stream()
+        getProperties().values().stream()
                 .filter(prop -> prop.getValidators() != null)
                 .forEach(prop -> {
                     for (String validatorName : prop.getValidators()) {
@@ -4,8 +4,8 @@ package robotbuilder.data;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -20,7 +20,11 @@ public class UniqueValidator implements Validator {
 
     private String name;
     LinkedList<String> fields;
-    Map<Map<String, Object>, Pair> claims = new HashMap<>();
+    ClaimStore<Pair> claims = new ClaimStore<>();
+    /**
+     * Created once the fields are known.
+     */
+    private PortAllocator allocator;
 
     public UniqueValidator() {
     }
@@ -33,8 +37,7 @@ public class UniqueValidator implements Validator {
     @Override
     public boolean isValid(RobotComponent component, Property property) {
         String prefix = getPrefix(property.getName());
-        Pair pair = new Pair(component, prefix);
-        return claims.containsValue(pair);
+        return claims.hasClaim(new Pair(component, prefix));
     }
 
     @Override
@@ -49,7 +52,7 @@ public class UniqueValidator implements Validator {
 
     @Override
     public String getError(RobotComponent component, Property property) {
-        Pair claimant = claims.get(getMap(component, getPrefix(property.getName())));
+        Pair claimant = claims.getClaimant(getMap(component, getPrefix(property.getName())));
         if (claimant == null) {
             return null;
         }
@@ -86,10 +89,11 @@ public class UniqueValidator implements Validator {
 
     private Map<String, Object> getMap(RobotComponent comp, String prefix) {
         Map<String, Object> values = new HashMap<>();
-        for (String prop : comp.getPropertyKeys()) {
-            fields.stream()
-                    .filter(field -> prop.endsWith(field) && prop.startsWith(prefix))
-                    .forEach(field -> values.put(field, comp.getProperty(prop).getValue()));
+        for (String field : fields) {
+            Property property = comp.getProperty(prefix + field);
+            if (property != null) {
+                values.put(field, property.getValue());
+            }
         }
         return values;
     }
@@ -110,12 +114,11 @@ public class UniqueValidator implements Validator {
                 .filter(key::endsWith)
                 .forEach(field -> values.put(field, val));
 
-        if (claims.containsKey(values)) {
+        release(comp, prefix);
+        if (!claims.claim(values, new Pair(comp, prefix))) {
             throw new InvalidException();
         }
-
-        Pair pair = new Pair(comp, prefix);
-        claims.put(values, pair);
+        getAllocator().claimed(values);
     }
 
     /**
@@ -125,15 +128,9 @@ public class UniqueValidator implements Validator {
      * @param prefix The prefix associated with the hold
      */
     private void release(RobotComponent component, String prefix) {
-        if (hasClaim(component, prefix)) {
-            Pair pair = new Pair(component, prefix);
-            List<Map<String, Object>> toRemove = new LinkedList<>();
-            claims.keySet().stream()
-                    .filter(key -> claims.get(key).equals(pair))
-                    .forEach(toRemove::add);
-            toRemove.stream().forEach(claims::remove);
-            //Map<String, Object> values = getMap(comp, prefix);
-            //claims.remove(values);
+        Map<String, Object> values = claims.release(new Pair(component, prefix));
+        if (values != null) {
+            getAllocator().released(values);
         }
     }
 
@@ -171,47 +168,25 @@ public class UniqueValidator implements Validator {
      * @return
      */
     private boolean hasClaim(RobotComponent component, String prefix) {
-        Pair pair = new Pair(component, prefix);
-        return claims.containsValue(pair);
+        return claims.hasClaim(new Pair(component, prefix));
     }
 
     /**
      * @return An unused port that can be claimed.
      */
     private Map<String, String> getFree(Map<String, String[]> choices) throws InvalidException {
-        assert fields.size() <= 2; // Warning: Buggy with more than two fields
-        Map<String, Integer> locations = new HashMap<>();
-        fields.stream().forEach((field) -> locations.put(field, 0));
-        int fieldLocation = 0;
-
-        while (true) {
-            // Generate values
-            Map<String, String> values = new HashMap<>();
-            fields.stream().forEach(field -> values.put(field, choices.get(field)[locations.get(field)]));
-
-            // Return it if acceptable
-            if (!claims.containsKey(values)) {
-                return values;
-            }
-
-            // Change locations
-            String field = fields.get(fieldLocation);
-            locations.put(field, locations.get(field) + 1);
-
-            if (locations.get(field) >= choices.get(field).length) {
-                locations.put(field, 0);
-                fieldLocation++;
-                locations.put(fields.get(fieldLocation), locations.get(fields.get(fieldLocation)) + 1);
-                if (locations.get(fields.get(fields.size() - 1)) >= choices.get(fields.get(fields.size() - 1)).length) {
-                    System.out.println("Error!!!");
-                    throw new InvalidException();
-                }
-            }
+        Map<String, String> values = getAllocator().next(choices);
+        if (values == null) {
+            throw new InvalidException();
+        }
+        return values;
+    }
 
-            if (fieldLocation > 0) {
-                fieldLocation--;
-            }
+    private PortAllocator getAllocator() {
+        if (allocator == null) {
+            allocator = new PortAllocator(fields, claims);
         }
+        return allocator;
     }
 
     //// YAML Getters and Setters
@@ -241,6 +216,10 @@ public class UniqueValidator implements Validator {
         }
     }
 
+    /**
+     * A component and the prefix of the properties it claims with. Pairs
+     * are the same if they have the same component, not just an equal one.
+     */
     static class Pair {
 
         RobotComponent comp;
@@ -259,7 +238,7 @@ public class UniqueValidator implements Validator {
         @Override
         public int hashCode() {
             int hash = 5;
-            hash = 53 * hash + (this.comp != null ? this.comp.hashCode() : 0);
+            hash = 53 * hash + System.identityHashCode(this.comp);
             hash = 53 * hash + (this.prefix != null ? this.prefix.hashCode() : 0);
             return hash;
         }
@@ -268,8 +247,8 @@ public class UniqueValidator implements Validator {
         public boolean equals(Object oth) {
             if (oth instanceof Pair) {
                 Pair other = (Pair) oth;
-                return comp.equals(other.comp)
-                        && prefix.equals(other.prefix);
+                return comp == other.comp
+                        && Objects.equals(prefix, other.prefix);
             }
             return false;
         }
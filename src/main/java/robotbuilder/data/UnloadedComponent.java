@@ -0,0 +1,81 @@
+package robotbuilder.data;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+import robotbuilder.palette.Palette;
+
+/**
+ * The saved state of a component that has not been loaded into the robot tree
+ * yet: its type, the values of its properties and its children. Building the
+ * {@link RobotComponent}s and their properties is put off until the component
+ * is needed, see {@link RobotComponent#load()}.
+ *
+ * <p>
+ * Unloaded components are never changed, so they can be shared between
+ * snapshots of the robot.
+ */
+public final class UnloadedComponent {
+
+    private final String name;
+    private final String baseType;
+    private final Map<String, Object> values;
+    private final List<UnloadedComponent> children;
+
+    /**
+     * @param name The name of the component.
+     * @param baseType The name of the palette component it is made from.
+     * @param values The values of its properties in the order they were saved.
+     * @param children Its children.
+     */
+    public UnloadedComponent(String name, String baseType, Map<String, Object> values, List<UnloadedComponent> children) {
+        this.name = name;
+        this.baseType = baseType;
+        this.values = Collections.unmodifiableMap(values);
+        this.children = Collections.unmodifiableList(children);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getBaseType() {
+        return baseType;
+    }
+
+    public PaletteComponent getBase() {
+        return Palette.getInstance().getItem(baseType);
+    }
+
+    public Map<String, Object> getValues() {
+        return values;
+    }
+
+    public List<UnloadedComponent> getChildren() {
+        return children;
+    }
+
+    /**
+     * Checks the components below this one, parents before their children.
+     *
+     * @param subsystem The subsystem prefix of the full names of the
+     * children, see {@link RobotComponent#getSubsystem()}.
+     * @param test Given the full name and the palette component of each
+     * descendant.
+     * @return Whether the test passed for any of them.
+     */
+    boolean anyDescendant(String subsystem, BiPredicate<String, PaletteComponent> test) {
+        for (UnloadedComponent child : children) {
+            PaletteComponent base = child.getBase();
+            boolean isSubsystem = base.getType().equals("Subsystem");
+            String fullName = isSubsystem ? child.name : subsystem + child.name;
+            if (test.test(fullName, base)
+                    || child.anyDescendant(isSubsystem ? child.name + " " : subsystem, test)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
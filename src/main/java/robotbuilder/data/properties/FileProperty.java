@@ -93,18 +93,27 @@ public class FileProperty extends Property {
     public void update() {
         super.update();
         if (chooser != null && !getValue().equals("")) {
-            File file;
-            if (getValue().toString().startsWith("/") // Absolute paths start with "/"
-                    || getValue().toString().matches("^.:\\\\.*")) { // and the more general form of C:\
-                file = new File(getValue().toString());
-            } else {
-                //System.out.println("Parent File: "+MainFrame.getInstance().getCurrentRobotTree().getFilePath());
-                file = new File(new File(MainFrame.getInstance().getCurrentRobotTree().getFilePath()).getParentFile(),
-                        getValue().toString());
-            }
-            chooser.setSelectedFile(file);
+            chooser.setSelectedFile(getFile());
             //value = chooser.getSelectedFile().toString();
         }
     }
 
+    /**
+     * Gets the file this property points to. Relative paths are resolved
+     * against the folder containing the save file. Unlike
+     * {@link #getDisplayValue()} this does not create a file chooser, so it is
+     * safe to call when running headless.
+     */
+    public File getFile() {
+        if (getValue().toString().startsWith("/") // Absolute paths start with "/"
+                || getValue().toString().matches("^.:\\\\.*")) { // and the more general form of C:\
+            return new File(getValue().toString());
+        }
+        String savePath = component.getRobotTree().getFilePath();
+        if (savePath == null) {
+            return new File(getValue().toString());
+        }
+        return new File(new File(savePath).getParentFile(), getValue().toString());
+    }
+
 }
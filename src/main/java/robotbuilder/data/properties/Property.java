@@ -68,7 +68,9 @@ public abstract class Property<T> implements Serializable {
     }
 
     /**
-     * This is called to update changes and support undo.
+     * This is called to update changes and support undo. In a transaction
+     * the validators and the snapshot wait until it is committed, see
+     * {@link robotbuilder.robottree.RobotTree#beginTransaction()}.
      *
      * @param value The value.
      */
@@ -81,7 +83,7 @@ public abstract class Property<T> implements Serializable {
             return;
         }
         if (component != null) {
-            update();
+            component.getRobotTree().validate(component, this);
             if (!Objects.equals(prevValue, value)) {
                 component.getRobotTree().takeSnapshot();
             }
@@ -0,0 +1,102 @@
+package robotbuilder.exporters;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+
+/**
+ * Writes an exported file as UTF-8 into a temporary file in the same folder
+ * and then moves it over the real file in one step, so an export that is
+ * interrupted never leaves a half written source file behind. The contents
+ * are hashed as they are written so the export can tell whether the file
+ * actually changed before replacing it.
+ *
+ * <p>
+ * If the writer is closed without being committed the temporary file is
+ * deleted and the real file is left alone.
+ */
+class AtomicExportWriter implements Closeable {
+
+    private final Path target;
+    private final Path temp;
+    private final MessageDigest digest;
+    private final Writer writer;
+    private String hash = null;
+    private boolean committed = false;
+
+    /**
+     * @param target The file to write. Its folder must exist.
+     * @param normalizeLineEndings Whether to convert all line endings to
+     * {@code \r\n} while writing.
+     */
+    AtomicExportWriter(File target, boolean normalizeLineEndings) throws IOException {
+        this.target = target.toPath();
+        this.temp = Files.createTempFile(this.target.toAbsolutePath().getParent(), "." + target.getName() + ".", ".tmp");
+        this.digest = ExportManifest.newDigest();
+        Writer out = new BufferedWriter(new OutputStreamWriter(
+                new DigestOutputStream(new BufferedOutputStream(
+                        Channels.newOutputStream(FileChannel.open(temp, StandardOpenOption.WRITE)), 1 << 16), digest),
+                StandardCharsets.UTF_8));
+        this.writer = normalizeLineEndings ? new LineEndingWriter(out) : out;
+    }
+
+    /**
+     * @return The writer for the contents of the file.
+     */
+    Writer getWriter() {
+        return writer;
+    }
+
+    /**
+     * Finishes writing the temporary file.
+     *
+     * @return The hash of the contents, as by {@link ExportManifest#hash(byte[])}.
+     */
+    String finish() throws IOException {
+        if (hash == null) {
+            writer.close();
+            hash = ExportManifest.toHex(digest.digest());
+        }
+        return hash;
+    }
+
+    /**
+     * Replaces the real file with the finished temporary file.
+     */
+    void commit() throws IOException {
+        finish();
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        committed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            try {
+                writer.close();
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package robotbuilder.exporters;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import robotbuilder.Utils;
+import robotbuilder.extensions.Extensions;
+import robotbuilder.palette.Palette;
+import robotbuilder.robottree.RobotTree;
+
+import static robotbuilder.ActionsClass.EXPORTERS_PATH;
+
+/**
+ * Exports any number of save files with any number of exporters in a single
+ * JVM without ever showing a window. The palette, the exporters and the robot
+ * tree are loaded once and reused for every project.
+ *
+ * <p>
+ * Usage: {@code BatchExporter --exporters java,cpp,wiring [--threads n] robot1.yaml robot2.yaml ...}
+ * <br>
+ * The exit code is 0 if every export succeeded, 1 if any export failed, and 2
+ * if the arguments could not be understood.
+ */
+public class BatchExporter {
+
+    public static final int EXIT_SUCCESS = 0;
+    public static final int EXIT_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+
+    private final Map<String, GenericExporter> exporters = new LinkedHashMap<>();
+    private final RobotTree robotTree;
+
+    /**
+     * Creates a new batch exporter.
+     *
+     * @param exporterNames The names of the exporters to use, eg "java", "cpp"
+     * or "wiring".
+     * @throws IllegalArgumentException If there is no exporter with one of the
+     * given names.
+     */
+    public BatchExporter(List<String> exporterNames) {
+        this(exporterNames, 1);
+    }
+
+    /**
+     * Creates a new batch exporter that exports the files of each project on
+     * several threads.
+     *
+     * @param exporterNames The names of the exporters to use, eg "java", "cpp"
+     * or "wiring".
+     * @param exportThreads The number of threads each exporter uses to write
+     * files.
+     * @throws IllegalArgumentException If there is no exporter with one of the
+     * given names.
+     */
+    public BatchExporter(List<String> exporterNames, int exportThreads) {
+        Extensions.init();
+        for (String exporterName : exporterNames) {
+            String path = EXPORTERS_PATH + exporterName + "/";
+            try (InputStream description = Utils.getResourceAsStream(path + "ExportDescription.yaml")) {
+                if (description == null) {
+                    throw new IllegalArgumentException("No exporter named '" + exporterName + "'");
+                }
+            } catch (IOException ex) {
+                throw new IllegalArgumentException("Could not read exporter '" + exporterName + "'", ex);
+            }
+            GenericExporter exporter = new GenericExporter(path);
+            exporter.setExportThreads(exportThreads);
+            exporters.put(exporterName, exporter);
+        }
+        robotTree = new RobotTree(Palette.getInstance());
+    }
+
+    /**
+     * Exports every save file with every exporter. A failure in one export does
+     * not stop the others.
+     *
+     * @param saveFiles The save files to export.
+     * @return One result for each (save file, exporter) pair, in order.
+     */
+    public List<Result> export(List<File> saveFiles) {
+        List<Result> results = new ArrayList<>();
+        for (File saveFile : saveFiles) {
+            try {
+                robotTree.read(saveFile);
+            } catch (IOException ex) {
+                exporters.keySet().forEach(name -> results.add(new Result(saveFile, name, ex.getMessage())));
+                continue;
+            }
+            for (Map.Entry<String, GenericExporter> exporter : exporters.entrySet()) {
+                String error = null;
+                try {
+                    exporter.getValue().exportFiles(robotTree);
+                } catch (ExportException | IOException ex) {
+                    error = describe(ex);
+                } catch (RuntimeException ex) {
+                    error = ex.toString();
+                }
+                results.add(new Result(saveFile, exporter.getKey(), error));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Describes a failure, including every file that failed in a parallel
+     * export.
+     */
+    private static String describe(Exception ex) {
+        StringBuilder description = new StringBuilder(String.valueOf(ex.getMessage()));
+        for (Throwable suppressed : ex.getSuppressed()) {
+            description.append("\n    ").append(suppressed.getMessage());
+        }
+        return description.toString();
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Runs a batch export from command line arguments.
+     *
+     * @param args The command line arguments.
+     * @return The exit code.
+     */
+    public static int run(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        System.setProperty("line.separator", "\r\n"); // Same as the GUI
+
+        List<String> exporterNames = new ArrayList<>();
+        List<File> saveFiles = new ArrayList<>();
+        int threads = 1;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--exporters") || args[i].equals("-e")) {
+                if (++i >= args.length) {
+                    return usage();
+                }
+                exporterNames.addAll(Arrays.asList(args[i].split(",")));
+            } else if (args[i].equals("--threads") || args[i].equals("-t")) {
+                if (++i >= args.length || !args[i].matches("[1-9][0-9]*")) {
+                    return usage();
+                }
+                threads = Integer.parseInt(args[i]);
+            } else if (args[i].startsWith("-")) {
+                return usage();
+            } else {
+                saveFiles.add(new File(args[i]));
+            }
+        }
+        if (exporterNames.isEmpty() || saveFiles.isEmpty()) {
+            return usage();
+        }
+
+        List<Result> results;
+        try {
+            results = new BatchExporter(exporterNames, threads).export(saveFiles);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex);
+            return EXIT_USAGE;
+        } catch (RuntimeException ex) {
+            ex.printStackTrace();
+            return EXIT_FAILURE;
+        }
+
+        boolean failed = false;
+        for (Result result : results) {
+            if (result.isSuccessful()) {
+                System.out.println("OK     " + result);
+            } else {
+                System.err.println("FAILED " + result + ": " + result.getError());
+                failed = true;
+            }
+        }
+        return failed ? EXIT_FAILURE : EXIT_SUCCESS;
+    }
+
+    private static int usage() {
+        System.err.println("Usage: BatchExporter --exporters java,cpp,wiring [--threads n] <save file>...");
+        return EXIT_USAGE;
+    }
+
+    /**
+     * The outcome of exporting one save file with one exporter.
+     */
+    public static class Result {
+
+        private final File saveFile;
+        private final String exporter;
+        private final String error;
+
+        public Result(File saveFile, String exporter, String error) {
+            this.saveFile = saveFile;
+            this.exporter = exporter;
+            this.error = error;
+        }
+
+        public File getSaveFile() {
+            return saveFile;
+        }
+
+        public String getExporter() {
+            return exporter;
+        }
+
+        /**
+         * @return The reason the export failed, or null if it succeeded.
+         */
+        public String getError() {
+            return error;
+        }
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+
+        @Override
+        public String toString() {
+            return saveFile + " (" + exporter + ")";
+        }
+    }
+}
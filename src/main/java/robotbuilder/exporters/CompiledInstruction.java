@@ -0,0 +1,257 @@
+package robotbuilder.exporters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.velocity.context.Context;
+
+/**
+ * An export instruction that only substitutes variables and calls the
+ * {@code #variable}, {@code #class} and {@code #constant} macros, rendered
+ * without going through Velocity. For example:
+ *
+ * <pre>
+ * #variable($Name) = new ${ClassName}(${Input_Channel_Analog});
+ * </pre>
+ *
+ * Instructions with anything else in them, such as {@code #if}, method calls
+ * or escapes, are not compiled. If a compiled instruction refers to a
+ * variable that is not set, or passes a macro something other than a
+ * string, {@link #render(Context)} returns null so that the caller can let
+ * Velocity handle it exactly as before.
+ */
+final class CompiledInstruction {
+
+    /**
+     * The macros that can be compiled, with the definition they must have in
+     * the macros file of the exporter.
+     */
+    static final Map<String, String> MACRO_DEFINITIONS;
+
+    static {
+        Map<String, String> definitions = new LinkedHashMap<>();
+        definitions.put("variable", "#macro( variable $name )${name.substring(0,1).toLowerCase()}${name.substring(1).replace(' ', '')}#end");
+        definitions.put("class", "#macro( class $name )${name.replace(' ', '')}#end");
+        definitions.put("constant", "#macro( constant $name )${name.replace(' ', '_').toUpperCase()}#end");
+        MACRO_DEFINITIONS = Collections.unmodifiableMap(definitions);
+    }
+
+    private static final String IDENTIFIER = "[A-Za-z_][A-Za-z0-9_-]*";
+    private static final Pattern REFERENCE = Pattern.compile("\\$(?:(" + IDENTIFIER + ")|\\{(" + IDENTIFIER + ")\\})");
+    private static final Pattern MACRO_CALL = Pattern.compile("#(" + IDENTIFIER + ")\\(\\s*" + REFERENCE.pattern() + "\\s*\\)");
+
+    private final List<Part> parts;
+    private final Set<String> references;
+
+    private CompiledInstruction(List<Part> parts, Set<String> references) {
+        this.parts = parts;
+        this.references = Collections.unmodifiableSet(references);
+    }
+
+    /**
+     * Finds the macros that a macros file defines the same way as
+     * {@link #MACRO_DEFINITIONS}.
+     *
+     * @param macros The contents of the macros file.
+     * @return The names of the macros that compiled instructions may call.
+     */
+    static Set<String> findMacros(String macros) {
+        Set<String> found = new HashSet<>();
+        for (String line : macros.split("\r?\n")) {
+            for (Map.Entry<String, String> definition : MACRO_DEFINITIONS.entrySet()) {
+                if (line.trim().equals(definition.getValue())) {
+                    found.add(definition.getKey());
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Compiles an instruction.
+     *
+     * @param instruction The instruction.
+     * @param macros The macros the instruction may call, see
+     * {@link #findMacros(String)}.
+     * @return The compiled instruction, or null if it needs Velocity.
+     */
+    static CompiledInstruction compile(String instruction, Set<String> macros) {
+        List<Part> parts = new ArrayList<>();
+        Set<String> references = new HashSet<>();
+        StringBuilder literal = new StringBuilder();
+        Matcher reference = REFERENCE.matcher(instruction);
+        Matcher macroCall = MACRO_CALL.matcher(instruction);
+        int i = 0;
+        while (i < instruction.length()) {
+            char c = instruction.charAt(i);
+            if (c == '\\' && i + 1 < instruction.length()
+                    && (instruction.charAt(i + 1) == '$' || instruction.charAt(i + 1) == '#')) {
+                return null; // Escaped reference or directive
+            } else if (c == '#') {
+                macroCall.region(i, instruction.length());
+                if (!macroCall.lookingAt() || !macros.contains(macroCall.group(1))
+                        || isAloneOnLine(instruction, i, macroCall.end())) {
+                    return null; // Some other directive, or a comment
+                }
+                String name = macroCall.group(2) != null ? macroCall.group(2) : macroCall.group(3);
+                flush(literal, parts);
+                parts.add(new MacroPart(macroCall.group(1), name));
+                references.add(name);
+                i = macroCall.end();
+            } else if (c == '$' && i + 1 < instruction.length()
+                    && (instruction.charAt(i + 1) == '{' || instruction.charAt(i + 1) == '!'
+                    || Character.isLetter(instruction.charAt(i + 1)) || instruction.charAt(i + 1) == '_')) {
+                reference.region(i, instruction.length());
+                if (!reference.lookingAt()) {
+                    return null; // Quiet or formal reference with more than a name in it
+                }
+                int end = reference.end();
+                if (reference.group(1) != null && end < instruction.length()
+                        && (instruction.charAt(end) == '[' || (instruction.charAt(end) == '.' && end + 1 < instruction.length()
+                        && (Character.isLetter(instruction.charAt(end + 1)) || instruction.charAt(end + 1) == '_')))) {
+                    return null; // Method call, property or index
+                }
+                String name = reference.group(1) != null ? reference.group(1) : reference.group(2);
+                flush(literal, parts);
+                parts.add(new ReferencePart(name));
+                references.add(name);
+                i = end;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        flush(literal, parts);
+        return new CompiledInstruction(parts, references);
+    }
+
+    /**
+     * Velocity swallows the line break after a directive that is on a line by
+     * itself, leave those to it.
+     */
+    private static boolean isAloneOnLine(String instruction, int start, int end) {
+        int lineStart = instruction.lastIndexOf('\n', start - 1) + 1;
+        if (!instruction.substring(lineStart, start).trim().isEmpty()) {
+            return false;
+        }
+        int lineEnd = instruction.indexOf('\n', end);
+        return lineEnd >= 0 && instruction.substring(end, lineEnd).trim().isEmpty();
+    }
+
+    private static void flush(StringBuilder literal, List<Part> parts) {
+        if (literal.length() > 0) {
+            parts.add(new LiteralPart(literal.toString()));
+            literal.setLength(0);
+        }
+    }
+
+    /**
+     * Renders the instruction.
+     *
+     * @param context The context to take variables from.
+     * @return The rendered instruction, or null if it has to be rendered by
+     * Velocity instead.
+     */
+    String render(Context context) {
+        StringBuilder out = new StringBuilder();
+        for (Part part : parts) {
+            if (!part.render(context, out)) {
+                return null;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * @return The names of the variables used by the instruction.
+     */
+    Set<String> getReferences() {
+        return references;
+    }
+
+    private interface Part {
+
+        /**
+         * @return False if the part can't be rendered without Velocity.
+         */
+        boolean render(Context context, StringBuilder out);
+    }
+
+    private static class LiteralPart implements Part {
+
+        private final String text;
+
+        LiteralPart(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public boolean render(Context context, StringBuilder out) {
+            out.append(text);
+            return true;
+        }
+    }
+
+    private static class ReferencePart implements Part {
+
+        private final String name;
+
+        ReferencePart(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean render(Context context, StringBuilder out) {
+            Object value = context.get(name);
+            String text = value == null ? null : value.toString();
+            if (text == null) {
+                return false;
+            }
+            out.append(text);
+            return true;
+        }
+    }
+
+    private static class MacroPart implements Part {
+
+        private final String macro;
+        private final String name;
+
+        MacroPart(String macro, String name) {
+            this.macro = macro;
+            this.name = name;
+        }
+
+        @Override
+        public boolean render(Context context, StringBuilder out) {
+            Object value = context.get(name);
+            if (!(value instanceof String)) {
+                return false;
+            }
+            String text = (String) value;
+            switch (macro) {
+                case "variable":
+                    if (text.isEmpty()) {
+                        return false;
+                    }
+                    out.append(text.substring(0, 1).toLowerCase()).append(text.substring(1).replace(" ", ""));
+                    return true;
+                case "class":
+                    out.append(text.replace(" ", ""));
+                    return true;
+                case "constant":
+                    out.append(text.replace(' ', '_').toUpperCase());
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package robotbuilder.exporters;
+
+/**
+ * Thrown when a robot cannot be exported, for example because a required
+ * property has not been filled in. The message is meant to be shown to the
+ * user.
+ */
+public class ExportException extends Exception {
+
+    private static final long serialVersionUID = -961891183528859241L;
+
+    private final String title;
+
+    public ExportException(String title, String message) {
+        super(message);
+        this.title = title;
+    }
+
+    /**
+     * @return A short summary of the problem, suitable for a dialog title.
+     */
+    public String getTitle() {
+        return title;
+    }
+}
@@ -2,9 +2,11 @@
 package robotbuilder.exporters;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -26,52 +28,85 @@ public class ExportFile {
 
     public void export(GenericExporter exporter) throws IOException {
         // Build the context
-        Context fileContext = new VelocityContext(exporter.rootContext);
+        Context fileContext = exporter.createFileContext();
         if (vars != null) {
             for (String key : vars.keySet()) {
                 fileContext.put(key, exporter.eval(vars.get(key), fileContext));
             }
         }
 
-        if (export.exists()) {
-            backup(exporter); // Create a backup for the user!
-        } else {
-            mkdir(export.getParentFile());
-        }
+        mkdir(export.getParentFile());
 
+        // Render the source once. The superclass of the new file only matters
+        // if an existing file might be kept, so only then is the render kept
+        // in memory; otherwise it is streamed straight to disk.
+        if (!export.exists() || update.equals("Overwrite")) {
+            System.out.println("Overwriting " + export);
+            try (AtomicExportWriter out = new AtomicExportWriter(export, false)) {
+                exporter.evalResource(source, fileContext, out.getWriter());
+                commit(exporter, out);
+            }
+            exporter.rendersSaved.incrementAndGet();
+            return;
+        }
+        String rendered = exporter.evalResource(source, fileContext);
         String oldType = CodeFileUtils.getSavedSuperclass(export);
-        String newType = CodeFileUtils.getSavedSuperclass(exporter.evalResource(source, fileContext));
+        String newType = CodeFileUtils.getSavedSuperclass(rendered);
         System.out.println("Saved type: " + oldType);
         System.out.println("  New type: " + newType);
         // Export
-        if (!export.exists() || update.equals("Overwrite") || !newType.equals(oldType)) {
+        if (!newType.equals(oldType)) {
             System.out.println("Overwriting " + export);
-            try (FileWriter out = new FileWriter(export)) {
-                out.write(exporter.evalResource(source, fileContext));
+            try (AtomicExportWriter out = new AtomicExportWriter(export, false)) {
+                out.getWriter().write(rendered);
+                commit(exporter, out);
             }
+            exporter.rendersSaved.incrementAndGet();
         } else if (update.equals("Modify")) {
             System.out.println("Modifying " + export);
-            String file = exporter.openFile(export.getAbsolutePath());
+            RegionSplicer splicer = new RegionSplicer();
             for (String id : modifications.keySet()) {
                 Context idContext = new VelocityContext(fileContext);
                 idContext.put("id", id);
-                String beginning = exporter.eval(exporter.begin_modification, idContext);
-                String end = exporter.eval(exporter.end_modification, idContext);
-                file = file.replaceAll("(" + beginning + ")([\\s\\S]*?)(" + end + ")",
-                        "$1\r\n" + exporter.evalResource(modifications.get(id), idContext) + "\r\n    $3");
+                splicer.addRegion(id,
+                        exporter.eval(exporter.begin_modification, idContext),
+                        exporter.eval(exporter.end_modification, idContext),
+                        () -> exporter.evalResource(modifications.get(id), idContext));
             }
-            try (FileWriter out = new FileWriter(export)) {
-                file = file.replaceAll("\r\n?|\n", "\r\n");
-                out.write(file);
+            try (AtomicExportWriter out = new AtomicExportWriter(export, true)) {
+                splicer.splice(exporter.openFile(export.getAbsolutePath()), out.getWriter());
+                commit(exporter, out);
             }
+            splicer.getProblems().forEach(problem -> System.out.println("Warning: " + export + ": " + problem));
+        } else if (exporter.manifest != null) {
+            exporter.manifest.record(export, null);
         }
     }
 
-    void backup(GenericExporter exporter) throws IOException {
-        File backup = new File(export.getAbsoluteFile() + "~");
-        try (FileWriter out = new FileWriter(backup)) {
-            out.write(exporter.openFile(export.getAbsolutePath()));
+    /**
+     * Replaces the export file with what was written to the writer, backing up
+     * the old file first. Nothing is replaced or backed up if the file already
+     * has these contents.
+     */
+    private void commit(GenericExporter exporter, AtomicExportWriter out) throws IOException {
+        String hash = out.finish();
+        if (export.exists()) {
+            if (exporter.manifest != null && exporter.manifest.hasContents(export, hash)) {
+                System.out.println("Unchanged " + export);
+                exporter.manifest.record(export, hash);
+                return;
+            }
+            backup(); // Create a backup for the user!
         }
+        out.commit();
+        if (exporter.manifest != null) {
+            exporter.manifest.record(export, hash);
+        }
+    }
+
+    void backup() throws IOException {
+        File backup = new File(export.getAbsoluteFile() + "~");
+        Files.copy(export.toPath(), backup.toPath(), StandardCopyOption.REPLACE_EXISTING);
     }
 
     // Getters and Setters for YAML
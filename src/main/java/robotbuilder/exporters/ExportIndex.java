@@ -0,0 +1,118 @@
+package robotbuilder.exporters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import robotbuilder.data.RobotComponent;
+
+/**
+ * An index of the robot being exported, built once at the start of an export
+ * so that the {@code $helper} methods used by the templates don't have to walk
+ * the whole robot every time they are called. The robot must not change while
+ * it is being exported.
+ *
+ * <p>
+ * Every list is in the same order as {@link RobotComponent#walk}, so lookups
+ * give the same answers as the walks they replace.
+ */
+class ExportIndex {
+
+    private final RobotComponent root;
+    private final List<RobotComponent> components;
+    private final Map<String, List<RobotComponent>> byExport;
+    private final Map<String, List<RobotComponent>> byType;
+    private final Map<String, RobotComponent> byName;
+    /**
+     * The components with a property whose name ends with a suffix. Filled in
+     * the first time a suffix is asked for.
+     */
+    private final Map<String, List<RobotComponent>> bySuffix = new ConcurrentHashMap<>();
+
+    /**
+     * @param root The robot to index.
+     * @param componentInstructions The export instructions of each palette
+     * component, used to find the category each component exports to.
+     */
+    ExportIndex(RobotComponent root, Map<String, Map<String, String>> componentInstructions) {
+        this.root = root;
+        List<RobotComponent> all = new ArrayList<>();
+        Map<String, List<RobotComponent>> exports = new HashMap<>();
+        Map<String, List<RobotComponent>> types = new HashMap<>();
+        Map<String, RobotComponent> names = new HashMap<>();
+        root.walk(component -> {
+            all.add(component);
+            Map<String, String> instructions = componentInstructions.get(component.getBase().getName());
+            if (instructions != null && instructions.get("Export") != null) {
+                exports.computeIfAbsent(instructions.get("Export"), k -> new ArrayList<>()).add(component);
+            }
+            types.computeIfAbsent(component.getBase().getType(), k -> new ArrayList<>()).add(component);
+            names.put(component.getFullName(), component);
+        });
+        components = Collections.unmodifiableList(all);
+        exports.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        types.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        byExport = Collections.unmodifiableMap(exports);
+        byType = Collections.unmodifiableMap(types);
+        byName = Collections.unmodifiableMap(names);
+    }
+
+    /**
+     * @return Whether this indexes the given component and everything under
+     * it.
+     */
+    boolean covers(RobotComponent robot) {
+        return robot == root;
+    }
+
+    /**
+     * @return Every component, in walk order.
+     */
+    List<RobotComponent> getComponents() {
+        return components;
+    }
+
+    /**
+     * @return The components that export to the given category, eg "RobotMap".
+     */
+    List<RobotComponent> getByExport(String category) {
+        return byExport.getOrDefault(category, Collections.emptyList());
+    }
+
+    /**
+     * @return The components whose palette type is the given type, eg
+     * "Subsystem".
+     */
+    List<RobotComponent> getByType(String type) {
+        return byType.getOrDefault(type, Collections.emptyList());
+    }
+
+    /**
+     * @return The component with the given full name, or null.
+     */
+    RobotComponent getByName(String fullName) {
+        return byName.get(fullName);
+    }
+
+    /**
+     * @return The components with at least one property whose name ends with
+     * the given suffix.
+     */
+    List<RobotComponent> getByPropertySuffix(String suffix) {
+        return bySuffix.computeIfAbsent(suffix, s -> {
+            List<RobotComponent> matches = new ArrayList<>();
+            for (RobotComponent component : components) {
+                for (String property : component.getPropertyKeys()) {
+                    if (property.endsWith(s)) {
+                        matches.add(component);
+                        break;
+                    }
+                }
+            }
+            return Collections.unmodifiableList(matches);
+        });
+    }
+}
@@ -0,0 +1,206 @@
+package robotbuilder.exporters;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.yaml.snakeyaml.Yaml;
+
+/**
+ * Remembers what an exporter wrote the last time it ran, so that an export of
+ * an unchanged robot can be skipped entirely and files whose contents did not
+ * change are neither backed up nor rewritten. This keeps the modification
+ * times of unchanged files intact, which keeps IDEs and build tools from
+ * rebuilding everything after every export.
+ *
+ * <p>
+ * The manifest is a small yaml file stored next to the save file. For every
+ * exported file it records the hash of its contents along with the size and
+ * modification time the file had when the hash was taken; as long as those
+ * match, the file does not need to be read again.
+ */
+class ExportManifest {
+
+    private static final Logger logger = Logger.getLogger(ExportManifest.class.getName());
+
+    private final File file;
+    private String inputHash;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> touched = ConcurrentHashMap.newKeySet();
+
+    private ExportManifest(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the manifest stored in the given file. A missing or unreadable
+     * manifest results in an empty manifest, which simply means everything
+     * will be exported.
+     */
+    static ExportManifest load(File file) {
+        ExportManifest manifest = new ExportManifest(file);
+        if (!file.exists()) {
+            return manifest;
+        }
+        try (Reader in = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            Map<String, Object> data = (Map<String, Object>) new Yaml().load(in);
+            manifest.inputHash = (String) data.get("Input");
+            Map<String, Map<String, Object>> files = (Map<String, Map<String, Object>>) data.get("Files");
+            files.forEach((path, entry) -> manifest.entries.put(path,
+                    new Entry((String) entry.get("Hash"),
+                            ((Number) entry.get("Size")).longValue(),
+                            ((Number) entry.get("Modified")).longValue())));
+        } catch (IOException | RuntimeException ex) {
+            logger.log(Level.WARNING, "Ignoring unreadable export manifest " + file, ex);
+            manifest.inputHash = null;
+            manifest.entries.clear();
+        }
+        return manifest;
+    }
+
+    /**
+     * Saves the manifest, keeping only the files recorded during this export.
+     *
+     * @param inputHash The hash of everything the export was made from.
+     */
+    void save(String inputHash) throws IOException {
+        this.inputHash = inputHash;
+        entries.keySet().retainAll(touched);
+        Map<String, Object> files = new TreeMap<>();
+        entries.forEach((path, entry) -> {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("Hash", entry.hash);
+            data.put("Size", entry.size);
+            data.put("Modified", entry.modified);
+            files.put(path, data);
+        });
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("Input", inputHash);
+        data.put("Files", files);
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            new Yaml().dump(data, out);
+        }
+    }
+
+    /**
+     * Deletes the manifest so that the next export starts from scratch.
+     */
+    void delete() {
+        file.delete();
+    }
+
+    /**
+     * @param inputHash The hash of everything the export is made from.
+     * @return Whether the last export was made from the same input and every
+     * file it wrote is still on disk, unchanged.
+     */
+    boolean isUpToDate(String inputHash) {
+        if (!inputHash.equals(this.inputHash) || entries.isEmpty()) {
+            return false;
+        }
+        return entries.entrySet().stream()
+                .allMatch(e -> e.getValue().hash.equals(diskHash(new File(e.getKey()))));
+    }
+
+    /**
+     * Checks if a file already has the given contents. This only reads the
+     * file if it changed since it was last recorded.
+     *
+     * @param export The file to check.
+     * @param contentHash The hash of the contents about to be written.
+     * @return Whether writing the contents would leave the file unchanged.
+     */
+    boolean hasContents(File export, String contentHash) {
+        return contentHash.equals(diskHash(export));
+    }
+
+    /**
+     * Records the current state of a file that was just exported or that the
+     * export decided to leave alone.
+     *
+     * @param export The file.
+     * @param contentHash The hash of its contents, or null to hash the file.
+     */
+    void record(File export, String contentHash) {
+        String path = export.getAbsolutePath();
+        touched.add(path);
+        if (!export.exists()) {
+            entries.remove(path);
+            return;
+        }
+        String hash = contentHash != null ? contentHash : diskHash(export);
+        entries.put(path, new Entry(hash, export.length(), export.lastModified()));
+    }
+
+    /**
+     * @return The hash of the file on disk, or null if it doesn't exist.
+     */
+    private String diskHash(File export) {
+        if (!export.exists()) {
+            return null;
+        }
+        Entry entry = entries.get(export.getAbsolutePath());
+        if (entry != null && entry.size == export.length() && entry.modified == export.lastModified()) {
+            return entry.hash;
+        }
+        try {
+            return hash(Files.readAllBytes(export.toPath()));
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * @return A hex SHA-256 hash of the given bytes.
+     */
+    static String hash(byte[] bytes) {
+        return toHex(newDigest().digest(bytes));
+    }
+
+    /**
+     * @return A new digest of the kind used for the hashes in the manifest.
+     */
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is always available", ex);
+        }
+    }
+
+    static String toHex(byte[] digest) {
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static class Entry {
+
+        final String hash;
+        final long size;
+        final long modified;
+
+        Entry(String hash, long size, long modified) {
+            this.hash = hash;
+            this.size = size;
+            this.modified = modified;
+        }
+    }
+}
@@ -4,29 +4,46 @@ package robotbuilder.exporters;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import java.nio.charset.StandardCharsets;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.swing.JOptionPane;
 
+import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
-import org.apache.velocity.app.VelocityEngine;
 import org.apache.velocity.context.Context;
+import org.apache.velocity.exception.ParseErrorException;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.apache.velocity.runtime.parser.ParseException;
 import org.yaml.snakeyaml.TypeDescription;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.constructor.Constructor;
@@ -36,6 +53,7 @@ import robotbuilder.RobotBuilder;
 import robotbuilder.robottree.RobotTree;
 import robotbuilder.Utils;
 import robotbuilder.data.RobotComponent;
+import robotbuilder.data.RobotWalker;
 import robotbuilder.extensions.ExtensionComponent;
 import robotbuilder.extensions.Extensions;
 
@@ -49,19 +67,71 @@ public class GenericExporter {
 
     private String name, type, filesPath;
     String path, begin_modification, end_modification, post_export_action;
+    private String macrosPath;
+    /**
+     * The macros from the macros file that compiled instructions may call.
+     */
+    private Set<String> compilableMacros = Collections.emptySet();
+    /**
+     * The component instructions simple enough to render without Velocity.
+     */
+    private final Map<String, CompiledInstruction> compiledInstructions = new HashMap<>();
     private boolean showOnToolbar;
-    VelocityEngine ve;
+    RuntimeInstance ve;
     Context rootContext = new VelocityContext();
     private LinkedList<String> requires = new LinkedList<>();
     private Map<String, String> vars = new HashMap<>();
     private LinkedList<String> varKeys = new LinkedList<>();
     private Map<String, Map<String, String>> componentInstructions;
+    /**
+     * Parsed templates, keyed by resource path. Rendering reuses the parsed
+     * tree instead of lexing and parsing the template again on every call.
+     */
+    private final Map<String, Template> resourceTemplates = new ConcurrentHashMap<>();
+    /**
+     * Parsed templates, keyed by the instruction string itself.
+     */
+    private final Map<String, Template> instructionTemplates = new ConcurrentHashMap<>();
+    /**
+     * The number of source renders avoided during the current export by
+     * reusing the render done for the superclass check when writing a file.
+     */
+    final AtomicInteger rendersSaved = new AtomicInteger();
+    /**
+     * The number of threads used to render and write files. With one thread
+     * the files are exported in order on the calling thread.
+     */
+    private int exportThreads = 1;
+    /**
+     * Whether to skip exports and file writes that would not change anything.
+     */
+    private boolean incremental = true;
+    /**
+     * The manifest of the export in progress, or null if the export is not
+     * incremental.
+     */
+    ExportManifest manifest;
+    /**
+     * The index of the robot being exported, or null between exports.
+     */
+    private volatile ExportIndex index;
+    /**
+     * The contexts of the components of the export in progress, and the
+     * instructions already rendered with them. The robot and the root context
+     * don't change during an export, so each instruction only needs to be
+     * rendered once per component.
+     */
+    private final Map<RobotComponent, Context> componentContexts = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final Map<RobotComponent, Map<String, String>> renderedInstructions = Collections.synchronizedMap(new IdentityHashMap<>());
+    final AtomicInteger instructionHits = new AtomicInteger();
+    final AtomicInteger instructionMisses = new AtomicInteger();
 
     public GenericExporter(String path) {
         this.path = path;
 
         // Setup velocity engine
-        ve = new VelocityEngine(Utils.getVelocityProperties());
+        ve = new RuntimeInstance();
+        ve.init(Utils.getVelocityProperties());
 
         // Load extensions
         List<ExtensionComponent> extensions = Extensions.getComponents();
@@ -75,7 +145,8 @@ public class GenericExporter {
         filesPath = (String) description.get("Files");
         begin_modification = (String) description.get("Begin Modification");
         end_modification = (String) description.get("End Modification");
-        evalResource(path + (String) description.get("Macros")); // Loads Macros Globally
+        macrosPath = path + (String) description.get("Macros");
+        loadMacros();
         showOnToolbar = (Boolean) description.get("Toolbar");
         if (description.containsKey("Required Properties")) {
             for (String prop : ((ArrayList<String>) description.get("Required Properties"))) {
@@ -121,26 +192,82 @@ public class GenericExporter {
     }
 
     public void export(RobotTree robotTree) throws IOException {
+        try {
+            exportFiles(robotTree);
+        } catch (ExportException ex) {
+            JOptionPane.showMessageDialog(MainFrame.getInstance(),
+                    ex.getMessage(), ex.getTitle(), JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        MainFrame.getInstance().setStatus("Export succesful.");
+        if (post_export_action != null) {
+            String action = eval(post_export_action);
+            if (action.startsWith("#")) {
+                if (action.startsWith("#Browse:")) {
+                    Utils.browse(action.replace("#Browse:", ""));
+                } else if (action.startsWith("#Message")) {
+                    MainFrame.getInstance().setStatus(action.replace("#Message:", ""));
+                } else {
+                    Logger.getLogger(Utils.class.getName()).log(Level.WARNING, null,
+                            "No special action for " + action);
+                }
+            } else {
+                Runtime rt = Runtime.getRuntime();
+                Process pr = rt.exec(action);
+            }
+        }
+    }
+
+    /**
+     * Exports the robot to all of the files of this exporter without touching
+     * the GUI. Problems with the robot are reported by throwing an
+     * {@link ExportException} instead of showing a dialog, and the post export
+     * action is not run.
+     *
+     * @param robotTree The robot to export.
+     * @throws ExportException If the robot is missing a required property or
+     * is not valid.
+     * @throws IOException If a file could not be written.
+     */
+    public void exportFiles(RobotTree robotTree) throws ExportException, IOException {
         // Check that all necessary properties are filled in.
         RobotComponent robot = robotTree.getRoot();
         for (String prop : requires) {
             Object state = robot.getProperty(prop).getValue();
             if (state == null || state.equals("") || state.equals("None")) {
-                JOptionPane.showMessageDialog(MainFrame.getInstance(),
-                        "You need to fill in the '" + prop + "' property of your robot for this export to work.\nYou can edit this with the main settings for your robot by clicking on " + robot.getName() + ".",
-                        "Missing Property", JOptionPane.ERROR_MESSAGE);
-                return;
+                throw new ExportException("Missing Property",
+                        "You need to fill in the '" + prop + "' property of your robot for this export to work.\nYou can edit this with the main settings for your robot by clicking on " + robot.getName() + ".");
             }
         }
 
         // Check that the robot is valid for export
         if (!robotTree.isRobotValid()) {
-            JOptionPane.showMessageDialog(MainFrame.getInstance(),
-                    "Your robot is not ready for export, the red components are not quiet finished, please finish and try again.",
-                    "Unfinished robot", JOptionPane.ERROR_MESSAGE);
-            return;
+            throw new ExportException("Unfinished robot",
+                    "Your robot is not ready for export, the red components are not quiet finished, please finish and try again.");
         }
 
+        // Skip the whole export if neither the robot nor the exported files changed
+        String inputHash = null;
+        manifest = null;
+        File manifestFile = getManifestFile(robotTree);
+        if (incremental && manifestFile != null) {
+            inputHash = ExportManifest.hash((RobotBuilder.VERSION + "\n" + robotTree.getFilePath() + "\n"
+                    + robotTree.encode()).getBytes(StandardCharsets.UTF_8));
+            manifest = ExportManifest.load(manifestFile);
+            if (manifest.isUpToDate(inputHash)) {
+                Logger.getLogger(GenericExporter.class.getName()).log(Level.INFO,
+                        "{0} export is up to date", name);
+                return;
+            }
+        }
+
+        // Index the robot once so the helpers don't walk it on every call
+        index = new ExportIndex(robot, componentInstructions);
+        clearComponentCaches();
+        instructionHits.set(0);
+        instructionMisses.set(0);
+
         // Prepare the main context
         rootContext.put("version", RobotBuilder.VERSION);
         rootContext.put("version-indicator", "RobotBuilder Version: " + RobotBuilder.VERSION);
@@ -149,38 +276,183 @@ public class GenericExporter {
         rootContext.put("Collections", Collections.class);
         rootContext.put("file-separator", File.separator);
         rootContext.put("exporter-path", path);
-        rootContext.put("components", getComponents(robot));
+        // Copies, since the templates may change them, eg reverse $components
+        rootContext.put("components", new ArrayList<>(index.getComponents()));
         rootContext.put("export-subsystems", robot.getProperty("Export Subsystems").getValue());
-        rootContext.put("subsystems", robotTree.getSubsystems());
+        rootContext.put("subsystems", new ArrayList<>(index.getByType("Subsystem")));
         rootContext.put("export-commands", robot.getProperty("Export Commands").getValue());
-        rootContext.put("commands", robotTree.getCommands());
+        rootContext.put("commands", new ArrayList<>(index.getByType("Command")));
         for (String key : varKeys) {
             rootContext.put(key, eval(vars.get(key)));
         }
 
         // Export to all files
+        rendersSaved.set(0);
         Collection<ExportFile> newFiles = getFiles();
-        for (ExportFile file : newFiles) {
-            file.export(this);
+        try {
+            if (exportThreads > 1 && newFiles.size() > 1) {
+                exportInParallel(newFiles);
+            } else {
+                for (ExportFile file : newFiles) {
+                    file.export(this);
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            if (manifest != null) {
+                manifest.delete(); // Some files may not match it anymore
+            }
+            throw ex;
+        } finally {
+            // The robot may change once the export is done
+            index = null;
+            clearComponentCaches();
+        }
+        if (manifest != null) {
+            manifest.save(inputHash);
         }
+        Logger.getLogger(GenericExporter.class.getName()).log(Level.INFO,
+                "{0} export reused {1} renders", new Object[]{name, rendersSaved.get()});
+        Logger.getLogger(GenericExporter.class.getName()).log(Level.INFO,
+                "{0} export rendered {1} instructions and reused {2}",
+                new Object[]{name, instructionMisses.get(), instructionHits.get()});
+    }
 
-        MainFrame.getInstance().setStatus("Export succesful.");
-        if (post_export_action != null) {
-            String action = eval(post_export_action);
-            if (action.startsWith("#")) {
-                if (action.startsWith("#Browse:")) {
-                    Utils.browse(action.replace("#Browse:", ""));
-                } else if (action.startsWith("#Message")) {
-                    MainFrame.getInstance().setStatus(action.replace("#Message:", ""));
-                } else {
-                    Logger.getLogger(Utils.class.getName()).log(Level.WARNING, null,
-                            "No special action for " + action);
+    /**
+     * Creates the context a file is rendered with. The templates may change
+     * the lists in the context, eg reverse {@code $components}, so every file
+     * gets its own copies. That way files render the same in any order and on
+     * any thread.
+     *
+     * @return The context, which also inherits from the rootContext
+     */
+    Context createFileContext() {
+        Context context = new VelocityContext(rootContext);
+        for (String key : new String[]{"components", "subsystems", "commands"}) {
+            Object value = rootContext.get(key);
+            if (value instanceof List) {
+                context.put(key, new ArrayList<>((List<?>) value));
+            }
+        }
+        return context;
+    }
+
+    private void clearComponentCaches() {
+        componentContexts.clear();
+        renderedInstructions.clear();
+    }
+
+    /**
+     * Gets the file that stores the manifest of the last export of the given
+     * robot with this exporter. It lives next to the save file.
+     *
+     * @return The manifest file, or null if the robot has never been saved.
+     */
+    private File getManifestFile(RobotTree robotTree) {
+        if (robotTree.getFilePath() == null) {
+            return null;
+        }
+        File saveFile = new File(robotTree.getFilePath());
+        return new File(saveFile.getParentFile(), saveFile.getName() + "." + new File(path).getName() + ".manifest");
+    }
+
+    /**
+     * Sets whether exports are incremental. An incremental export is skipped
+     * if neither the robot nor any exported file changed since the last
+     * export, and files whose contents would not change are not backed up or
+     * rewritten. This is on by default.
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Renders and writes the files on a bounded pool of threads. Every file
+     * renders with its own context and its own copies of the lists, see
+     * {@link #createFileContext()}, and every instruction with its own layer
+     * on top of the shared component context. The root context is only read
+     * while the files are exported, so the output does not depend on the order
+     * the files finish in. Every file is attempted even if some fail.
+     *
+     * @param files The files to export.
+     * @throws IOException If any file failed to export. Each failure is
+     * attached as a suppressed exception.
+     */
+    private void exportInParallel(Collection<ExportFile> files) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(exportThreads, files.size()));
+        List<ExportFile> submitted = new ArrayList<>();
+        List<Future<?>> results = new ArrayList<>();
+        for (ExportFile file : files) {
+            submitted.add(file);
+            results.add(pool.submit(() -> {
+                file.export(this);
+                return null;
+            }));
+        }
+        pool.shutdown();
+
+        List<Throwable> failures = new ArrayList<>();
+        try {
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    results.get(i).get();
+                } catch (ExecutionException ex) {
+                    failures.add(new IOException(submitted.get(i).getExport() + ": " + ex.getCause().getMessage(), ex.getCause()));
                 }
-            } else {
-                Runtime rt = Runtime.getRuntime();
-                Process pr = rt.exec(action);
             }
+        } catch (InterruptedException ex) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while exporting");
+        }
+        if (!failures.isEmpty()) {
+            IOException failure = new IOException(failures.size() + " of " + files.size() + " files failed to export");
+            failures.forEach(failure::addSuppressed);
+            throw failure;
+        }
+    }
+
+    /**
+     * Sets the number of threads used to export files. The default of one
+     * exports the files one at a time on the calling thread.
+     *
+     * @param exportThreads The number of threads, at least one.
+     */
+    public void setExportThreads(int exportThreads) {
+        if (exportThreads < 1) {
+            throw new IllegalArgumentException("Need at least one export thread, got " + exportThreads);
         }
+        this.exportThreads = exportThreads;
+    }
+
+    public int getExportThreads() {
+        return exportThreads;
+    }
+
+    /**
+     * @return The number of template renders the last export avoided by
+     * rendering each file once.
+     */
+    public int getRendersSaved() {
+        return rendersSaved.get();
+    }
+
+    /**
+     * @return The number of component instructions the last export reused
+     * instead of rendering again.
+     */
+    public int getInstructionHits() {
+        return instructionHits.get();
+    }
+
+    /**
+     * @return The number of component instructions the last export rendered.
+     */
+    public int getInstructionMisses() {
+        return instructionMisses.get();
     }
 
     /**
@@ -218,6 +490,9 @@ public class GenericExporter {
                 }
                 instruction = instruction.replaceAll("\n", "\r\n");
                 component.put(instructionKey, instruction);
+                if (!compiledInstructions.containsKey(instruction)) {
+                    compiledInstructions.put(instruction, CompiledInstruction.compile(instruction, compilableMacros));
+                }
             }
             componentInstructions.put(key, component);
         }
@@ -232,22 +507,96 @@ public class GenericExporter {
         return filesYaml;
     }
 
+    /**
+     * Evaluates the macros file, which defines its macros globally for every
+     * template rendered by this exporter.
+     */
+    private void loadMacros() {
+        StringWriter macros = new StringWriter();
+        try (Reader in = new InputStreamReader(Utils.getResourceAsStream(macrosPath))) {
+            char[] buffer = new char[8192];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                macros.write(buffer, 0, read);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        ve.evaluate(rootContext, new StringWriter(), name + " Exporter: " + macrosPath, macros.toString());
+        compilableMacros = CompiledInstruction.findMacros(macros.toString());
+    }
+
+    /**
+     * Forgets every parsed template and reloads the macros. Template authors
+     * should call this after changing a template or an export instruction so
+     * the next export picks up the change.
+     */
+    public void clearTemplateCache() {
+        resourceTemplates.clear();
+        instructionTemplates.clear();
+        loadMacros();
+    }
+
+    /**
+     * Parses a template once so that it can be rendered any number of times.
+     *
+     * @param templateName The name used when reporting errors.
+     * @param in The template source.
+     * @return The parsed template.
+     */
+    private Template parse(String templateName, Reader in) {
+        try {
+            Template template = new Template();
+            template.setName(templateName);
+            template.setRuntimeServices(ve);
+            template.setData(ve.parse(in, templateName));
+            template.initDocument();
+            return template;
+        } catch (ParseException ex) {
+            throw new ParseErrorException(ex.getMessage());
+        }
+    }
+
+    private String render(Template template, Context context) {
+        StringWriter w = new StringWriter();
+        template.merge(context, w);
+        return w.toString();
+    }
+
     String evalResource(String resource, Context context) {
-        InputStreamReader in;
-        in = new InputStreamReader(Utils.getResourceAsStream(resource));
         StringWriter w = new StringWriter();
-        ve.evaluate(context, w, name + " Exporter: " + resource, in);
+        evalResource(resource, context, w);
         return w.toString();
     }
 
+    /**
+     * Renders a template resource straight to a writer.
+     */
+    void evalResource(String resource, Context context, Writer out) {
+        Template template = resourceTemplates.computeIfAbsent(resource, r -> {
+            try (Reader in = new InputStreamReader(Utils.getResourceAsStream(r))) {
+                return parse(name + " Exporter: " + r, in);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        template.merge(context, out);
+    }
+
     String evalResource(String resource) {
         return evalResource(resource, rootContext);
     }
 
     String eval(String templateString, Context context) {
-        StringWriter w = new StringWriter();
-        ve.evaluate(context, w, name + " Exporter", templateString);
-        return w.toString();
+        CompiledInstruction compiled = compiledInstructions.get(templateString);
+        if (compiled != null) {
+            String rendered = compiled.render(context);
+            if (rendered != null) {
+                return rendered;
+            }
+        }
+        Template template = instructionTemplates.computeIfAbsent(templateString,
+                t -> parse(name + " Exporter", new StringReader(t)));
+        return render(template, context);
     }
 
     String eval(String templateString) {
@@ -261,6 +610,13 @@ public class GenericExporter {
      * @return The context, which also inherits from the rootContext
      */
     private Context getContext(RobotComponent comp) {
+        if (index == null) {
+            return createContext(comp);
+        }
+        return componentContexts.computeIfAbsent(comp, this::createContext);
+    }
+
+    private Context createContext(RobotComponent comp) {
         Context context = new VelocityContext(rootContext);
         final Map<String, String> instructions = componentInstructions.get(comp.getBase().getName());
         context.put("ClassName", instructions.get("ClassName"));
@@ -277,13 +633,6 @@ public class GenericExporter {
         return context;
     }
 
-    private LinkedList<RobotComponent> getComponents(RobotComponent robot) {
-        final LinkedList<RobotComponent> components = new LinkedList<>();
-        robot.walk(components::add);
-
-        return components;
-    }
-
     // Getters and such
     public String getName() {
         return name;
@@ -302,7 +651,7 @@ public class GenericExporter {
     // TODO: make macro
     public Map<String, String> filterComponents(final String moduleFilter, final String portFilter, final String module, RobotComponent robot) {
         final Map<String, String> mapping = new HashMap<>();
-        robot.walk(component -> {
+        RobotWalker filter = component -> {
             Map<String, String> modules = new HashMap<>();
             Map<String, String> ports = new HashMap<>();
             for (String property : component.getPropertyKeys()) {
@@ -317,14 +666,19 @@ public class GenericExporter {
             ports.keySet().stream()
                     .filter(key -> module.equals(modules.get(key)))
                     .forEach(key -> mapping.put(ports.get(key), component.getFullName() + " " + key));
-        });
+        };
+        if (isIndexed(robot)) {
+            index.getByPropertySuffix(portFilter).forEach(filter::handleRobotComponent);
+        } else {
+            robot.walk(filter);
+        }
         return mapping;
     }
 
     // TODO: make macro
     public Map<String, String> filterComponents(final String propertyName, RobotComponent robot) {
         final Map<String, String> mapping = new HashMap<>();
-        robot.walk(component -> {
+        RobotWalker filter = component -> {
             for (String property : component.getPropertyKeys()) {
                 if (property.endsWith(propertyName)) {
                     // show speed controller type
@@ -339,13 +693,33 @@ public class GenericExporter {
                     }
                 }
             }
-        });
+        };
+        if (isIndexed(robot)) {
+            index.getByPropertySuffix(propertyName).forEach(filter::handleRobotComponent);
+        } else {
+            robot.walk(filter);
+        }
         return mapping;
     }
 
     public String getInstruction(RobotComponent comp, String instruction) { // TODO: Make macro
         final Map<String, String> instructions = componentInstructions.get(comp.getBase().getName());
-        return eval(instructions.get(instruction), getContext(comp));
+        if (index == null) {
+            return eval(instructions.get(instruction), new VelocityContext(getContext(comp)));
+        }
+        // Not computeIfAbsent, instructions can render other instructions
+        Map<String, String> rendered = renderedInstructions.computeIfAbsent(comp, c -> new ConcurrentHashMap<>());
+        String result = rendered.get(instruction);
+        if (result != null) {
+            instructionHits.incrementAndGet();
+            return result;
+        }
+        instructionMisses.incrementAndGet();
+        // A layer of its own, so #set in the instruction can't change the
+        // context that other files share
+        result = eval(instructions.get(instruction), new VelocityContext(getContext(comp)));
+        rendered.put(instruction, result);
+        return result;
     }
 
     /**
@@ -357,13 +731,20 @@ public class GenericExporter {
      */
     public String getImports(RobotComponent robot, final String category) { // TODO: make macro
         final Set<String> imports = new HashSet<>();
-        robot.walk(component -> {
-            Map<String, String> instructions = componentInstructions.get(component.getBase().getName());
-            if (category.equals(instructions.get("Export"))) {
-                String instruction = instructions.get("Import");
-                imports.add(eval(instruction, getContext(component)));
+        if (isIndexed(robot)) {
+            for (RobotComponent component : index.getByExport(category)) {
+                String instruction = componentInstructions.get(component.getBase().getName()).get("Import");
+                imports.add(eval(instruction, new VelocityContext(getContext(component))));
             }
-        });
+        } else {
+            robot.walk(component -> {
+                Map<String, String> instructions = componentInstructions.get(component.getBase().getName());
+                if (category.equals(instructions.get("Export"))) {
+                    String instruction = instructions.get("Import");
+                    imports.add(eval(instruction, new VelocityContext(getContext(component))));
+                }
+            });
+        }
 
         return imports.stream()
                       .map(imp -> imp.split("\r?\n")) // Split import instructions into distinct lines
@@ -385,9 +766,21 @@ public class GenericExporter {
     }
 
     public RobotComponent getByName(final String name, RobotComponent robot) { // TODO: Make macro
+        if (isIndexed(robot)) {
+            return index.getByName(name);
+        }
         return robot.getRobotTree().getComponentByName(name);
     }
 
+    /**
+     * @return Whether the helpers can answer questions about the given robot
+     * from the index of the current export instead of walking it.
+     */
+    private boolean isIndexed(RobotComponent robot) {
+        ExportIndex current = index;
+        return current != null && current.covers(robot);
+    }
+
     public List<String> stringSplit(String string, String regex) { // TODO: don't make macro, it won't work
         return Arrays.asList(string.split(regex));
     }
@@ -395,7 +788,7 @@ public class GenericExporter {
     // UTILITIES
     String openFile(String path) throws IOException {
         StringBuilder stringBuilder;
-        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8))) {
             String line = null;
             stringBuilder = new StringBuilder();
             String ls = "\r\n";//System.getProperty("line.separator");
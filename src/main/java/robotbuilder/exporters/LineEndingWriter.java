@@ -0,0 +1,73 @@
+package robotbuilder.exporters;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A writer that converts {@code \r}, {@code \n} and {@code \r\n} line endings
+ * to {@code \r\n} as the text passes through, so exported files get windows
+ * line endings without building an extra copy of the whole file.
+ */
+class LineEndingWriter extends FilterWriter {
+
+    /**
+     * Whether the last character written was a {@code \r}, in which case a
+     * following {@code \n} has already been written.
+     */
+    private boolean afterCarriageReturn = false;
+
+    LineEndingWriter(Writer out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        if (c == '\n') {
+            if (!afterCarriageReturn) {
+                out.write("\r\n");
+            }
+            afterCarriageReturn = false;
+        } else if (c == '\r') {
+            out.write("\r\n");
+            afterCarriageReturn = true;
+        } else {
+            out.write(c);
+            afterCarriageReturn = false;
+        }
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        int start = offset;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            char c = chars[i];
+            if (c == '\r' || c == '\n') {
+                out.write(chars, start, i - start);
+                write(c);
+                start = i + 1;
+            } else {
+                afterCarriageReturn = false;
+            }
+        }
+        out.write(chars, start, end - start);
+    }
+
+    @Override
+    public void write(String text, int offset, int length) throws IOException {
+        int start = offset;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '\r' || c == '\n') {
+                out.write(text, start, i - start);
+                write(c);
+                start = i + 1;
+            } else {
+                afterCarriageReturn = false;
+            }
+        }
+        out.write(text, start, end - start);
+    }
+}
@@ -0,0 +1,152 @@
+package robotbuilder.exporters;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Replaces the autogenerated regions of a file that the user is allowed to
+ * edit. A region starts with a begin marker and ends with the first end
+ * marker after it, for example:
+ *
+ * <pre>
+ * // BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=DECLARATIONS
+ * ...
+ * // END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=DECLARATIONS
+ * </pre>
+ *
+ * The file is scanned once for all of the regions and the output is written
+ * in the same pass with every line ending normalized to {@code \r\n}. The
+ * contents of a region are only rendered if the region is in the file.
+ * Regions that are missing, unterminated or appear more than once are
+ * reported by {@link #getProblems()}.
+ */
+class RegionSplicer {
+
+    private final Map<String, Region> regionsByBegin = new LinkedHashMap<>();
+    private final List<String> problems = new ArrayList<>();
+
+    /**
+     * Adds a region to replace.
+     *
+     * @param id The ID of the region, used in problem reports.
+     * @param begin The marker at the start of the region.
+     * @param end The marker at the end of the region.
+     * @param contents Renders the new contents of the region.
+     */
+    void addRegion(String id, String begin, String end, Supplier<String> contents) {
+        regionsByBegin.put(begin, new Region(id, end, contents));
+    }
+
+    /**
+     * Replaces every region in the text.
+     *
+     * @param text The text of the file.
+     * @return The text with every region replaced and line endings normalized.
+     */
+    String splice(String text) {
+        StringWriter out = new StringWriter(text.length() + text.length() / 4);
+        try {
+            splice(text, out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex); // Can't happen with a StringWriter
+        }
+        return out.toString();
+    }
+
+    /**
+     * Replaces every region in the text, writing the result as it goes.
+     *
+     * @param text The text of the file.
+     * @param writer Where to write the text with every region replaced and
+     * line endings normalized.
+     */
+    void splice(String text, Writer writer) throws IOException {
+        problems.clear();
+        Writer out = writer instanceof LineEndingWriter ? writer : new LineEndingWriter(writer);
+        if (regionsByBegin.isEmpty()) {
+            out.write(text);
+            out.flush();
+            return;
+        }
+
+        // Longest first, so an ID that is a prefix of another can't steal its region
+        String alternatives = regionsByBegin.keySet().stream()
+                .sorted((a, b) -> b.length() - a.length())
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|"));
+        Matcher beginMatcher = Pattern.compile(alternatives).matcher(text);
+
+        Map<Region, Integer> found = new HashMap<>();
+        int copied = 0;
+        int from = 0;
+        while (from < text.length() && beginMatcher.find(from)) {
+            String begin = beginMatcher.group();
+            Region region = regionsByBegin.get(begin);
+            int end = text.indexOf(region.end, beginMatcher.end());
+            if (end < 0) {
+                problems.add("No end marker for the autogenerated code with ID " + region.id);
+                from = beginMatcher.end(); // Leave it alone
+                continue;
+            }
+            found.merge(region, 1, Integer::sum);
+            out.write(text, copied, beginMatcher.end() - copied);
+            out.write("\r\n");
+            out.write(region.render());
+            out.write("\r\n    ");
+            copied = end;
+            from = end + region.end.length();
+        }
+        out.write(text, copied, text.length() - copied);
+        out.flush();
+
+        for (Region region : regionsByBegin.values()) {
+            int count = found.getOrDefault(region, 0);
+            if (count == 0) {
+                problems.add("No autogenerated code with ID " + region.id);
+            } else if (count > 1) {
+                problems.add("The autogenerated code with ID " + region.id + " appears " + count + " times");
+            }
+        }
+    }
+
+    /**
+     * @return The problems found by the last call to {@link #splice(String)}.
+     */
+    List<String> getProblems() {
+        return Collections.unmodifiableList(problems);
+    }
+
+    private static class Region {
+
+        final String id;
+        final String end;
+        final Supplier<String> contents;
+        String rendered;
+
+        Region(String id, String end, Supplier<String> contents) {
+            this.id = id;
+            this.end = end;
+            this.contents = contents;
+        }
+
+        String render() {
+            if (rendered == null) {
+                rendered = contents.get();
+            }
+            return rendered;
+        }
+    }
+}
@@ -2,6 +2,7 @@
 package robotbuilder.palette;
 
 import java.awt.CardLayout;
+import java.awt.GraphicsEnvironment;
 
 import java.io.File;
 import java.io.InputStreamReader;
@@ -100,6 +101,9 @@ public class Palette extends JPanel {
         model = new DefaultTreeModel(root);
 
         setLayout(new CardLayout());
+        if (GraphicsEnvironment.isHeadless()) {
+            return; // Only the components and validators are needed to export
+        }
         JScrollPane iconView = new JScrollPane(new IconView(this));
         iconView.getVerticalScrollBar().setUnitIncrement(32);
         add(iconView, Layouts.ICONS.toString());
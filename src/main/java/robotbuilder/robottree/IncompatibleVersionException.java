@@ -0,0 +1,16 @@
+package robotbuilder.robottree;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a save file was made with a version of RobotBuilder that this
+ * version cannot load.
+ */
+public class IncompatibleVersionException extends IOException {
+
+    private static final long serialVersionUID = 456753400960882664L;
+
+    public IncompatibleVersionException(String message) {
+        super(message);
+    }
+}
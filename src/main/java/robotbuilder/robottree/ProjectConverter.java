@@ -0,0 +1,82 @@
+package robotbuilder.robottree;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.concurrent.ExecutionException;
+
+import robotbuilder.extensions.Extensions;
+import robotbuilder.palette.Palette;
+
+/**
+ * Converts a robot between a single save file and a project directory
+ * without showing a window.
+ *
+ * <p>
+ * Usage: {@code RobotBuilder --convert <from> <to>}
+ * <br>
+ * Either side may be a save file or a project directory, anything that isn't
+ * a {@code .yaml} or {@code .yml} file is a project directory. The exit code
+ * is 0 if the robot was converted, 1 if it could not be read or written, and
+ * 2 if the arguments could not be understood.
+ */
+public class ProjectConverter {
+
+    public static final int EXIT_SUCCESS = 0;
+    public static final int EXIT_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+
+    private ProjectConverter() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Runs a conversion from command line arguments.
+     *
+     * @param args The source and the target.
+     * @return The exit code.
+     */
+    public static int run(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        System.setProperty("line.separator", "\r\n"); // Same as the GUI
+
+        if (args.length != 2 || args[0].startsWith("-") || args[1].startsWith("-")) {
+            System.err.println("Usage: RobotBuilder --convert <save file or project directory> <save file or project directory>");
+            return EXIT_USAGE;
+        }
+        File from = resolve(new File(args[0]));
+        File to = resolve(new File(args[1]));
+
+        try {
+            Extensions.init();
+            RobotTree robotTree = new RobotTree(Palette.getInstance());
+            robotTree.read(from);
+            robotTree.saveInBackground(to.getAbsolutePath()).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return EXIT_FAILURE;
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("FAILED " + from + ": " + ex);
+            return EXIT_FAILURE;
+        } catch (ExecutionException ex) {
+            System.err.println("FAILED " + from + ": " + ex.getCause());
+            return EXIT_FAILURE;
+        }
+        System.out.println("OK     " + from + " -> " + to);
+        return EXIT_SUCCESS;
+    }
+
+    /**
+     * @return The save file, or the manifest of the project directory.
+     */
+    private static File resolve(File path) {
+        String name = path.getName().toLowerCase();
+        if (name.endsWith(".yaml") || name.endsWith(".yml")) {
+            return path;
+        }
+        return new File(path, ProjectDirectory.MANIFEST);
+    }
+}
@@ -0,0 +1,314 @@
+package robotbuilder.robottree;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+
+import robotbuilder.data.RobotComponent;
+
+/**
+ * Saves a robot as a directory of files instead of a single save file, so
+ * that people working on different parts of the robot change different
+ * files. The directory holds a manifest with the robot and its folders, and a
+ * file for the Operator Interface and for each subsystem and command:
+ *
+ * <pre>
+ * robot-project.yaml
+ * oi.yaml
+ * subsystems/Drive Train.yaml
+ * commands/Autonomous Command.yaml
+ * </pre>
+ *
+ * Every file has the same format as a save file. In the manifest the
+ * components that have a file of their own are replaced by
+ * {@code Include: <file>}, and putting the files back together gives
+ * exactly the save file of the robot. That is how projects are loaded, and
+ * why saving a loaded project to a single file converts it.
+ *
+ * <p>
+ * Saving only writes the files whose contents changed since they were last
+ * read or written, and deletes the files of components that are gone.
+ */
+final class ProjectDirectory {
+
+    /**
+     * The name of the manifest file, which is what is opened to open a
+     * project.
+     */
+    static final String MANIFEST = "robot-project.yaml";
+    /**
+     * The key of a component in the manifest that is saved in another file.
+     */
+    static final String INCLUDE = "Include";
+
+    private static final String OI_FILE = "oi.yaml";
+    private static final String FILE_TYPE = ".yaml";
+
+    /**
+     * The folders that save each of their children in a file of its own, and
+     * the directories those files go in.
+     */
+    private static final Map<String, String> PART_DIRECTORIES = new HashMap<>();
+
+    static {
+        PART_DIRECTORIES.put("Subsystems", "subsystems");
+        PART_DIRECTORIES.put("Commands", "commands");
+    }
+
+    private File directory;
+    /**
+     * The contents of the files of the project as they were last read or
+     * written, by their path in the directory. A file is dirty if its
+     * contents are different now.
+     */
+    private final Map<String, String> written = new HashMap<>();
+
+    /**
+     * @return Whether a file is the manifest of a project directory.
+     */
+    static boolean isManifest(File file) {
+        return file.getName().equals(MANIFEST);
+    }
+
+    /**
+     * Reads a project, reading the files it includes in parallel.
+     *
+     * @param manifest The manifest of the project.
+     * @return The composed documents of the equivalent save file: the version
+     * and the robot.
+     * @throws IOException If a file is missing or can't be read.
+     */
+    synchronized List<Node> read(File manifest) throws IOException {
+        File dir = manifest.getAbsoluteFile().getParentFile();
+        Map<String, String> contents = new ConcurrentHashMap<>();
+        List<Node> documents = compose(dir, MANIFEST, contents);
+        if (documents.size() != 2 || !(documents.get(1) instanceof MappingNode)) {
+            throw new IOException("Not a RobotBuilder project: " + manifest);
+        }
+        Node root = documents.get(1);
+
+        List<String> includes = new ArrayList<>();
+        findIncludes(root, includes);
+        Map<String, Node> parts = new ConcurrentHashMap<>();
+        try {
+            includes.parallelStream().forEach(path -> {
+                try {
+                    List<Node> part = compose(dir, path, contents);
+                    parts.put(path, part.get(part.size() - 1));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        resolveIncludes(root, parts);
+
+        directory = dir;
+        written.clear();
+        written.putAll(contents);
+        return documents;
+    }
+
+    /**
+     * Writes a robot to a project directory, skipping the files that haven't
+     * changed.
+     *
+     * @param root The root of the robot.
+     * @param manifest The manifest of the project.
+     * @return The paths of the files that were written, relative to the
+     * directory.
+     * @throws IOException If a file could not be written.
+     */
+    synchronized List<String> write(RobotComponent root, File manifest) throws IOException {
+        File dir = manifest.getAbsoluteFile().getParentFile();
+        if (!dir.equals(directory)) {
+            directory = dir;
+            written.clear();
+        }
+
+        Map<String, RobotComponent> parts = findParts(root);
+        Map<RobotComponent, String> paths = new IdentityHashMap<>();
+        parts.forEach((path, part) -> paths.put(part, path));
+        Map<String, String> files = new LinkedHashMap<>();
+        for (Map.Entry<String, RobotComponent> part : parts.entrySet()) {
+            files.put(part.getKey(), render(part.getValue(), component -> null));
+        }
+        files.put(MANIFEST, render(root, paths::get)); // Last, so it never refers to a file that isn't there yet
+
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            Path target = new File(dir, file.getKey()).toPath();
+            if (file.getValue().equals(written.get(file.getKey())) && Files.isRegularFile(target)) {
+                continue;
+            }
+            writeFile(target, file.getValue());
+            written.put(file.getKey(), file.getValue());
+            changed.add(file.getKey());
+        }
+        for (Iterator<String> known = written.keySet().iterator(); known.hasNext();) {
+            String path = known.next();
+            if (!files.containsKey(path)) { // Deleted or renamed
+                Files.deleteIfExists(new File(dir, path).toPath());
+                known.remove();
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Finds the components that are saved in files of their own, by the path
+     * of their file.
+     */
+    private static Map<String, RobotComponent> findParts(RobotComponent root) {
+        Map<String, RobotComponent> parts = new LinkedHashMap<>();
+        Set<String> used = new HashSet<>();
+        for (RobotComponent folder : root.getChildren()) {
+            String partDirectory = PART_DIRECTORIES.get(folder.getBaseType());
+            if (folder.getBaseType().equals("OI")) {
+                parts.put(OI_FILE, folder);
+            } else if (partDirectory != null) {
+                for (RobotComponent part : folder.getChildren()) {
+                    parts.put(getPath(partDirectory, part.getName(), used), part);
+                }
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Gives a component a file named after it that no other component uses,
+     * even on file systems that ignore case.
+     */
+    private static String getPath(String partDirectory, String name, Set<String> used) {
+        String base = partDirectory + "/" + name.replaceAll("[^A-Za-z0-9 _-]", "_");
+        String path = base + FILE_TYPE;
+        for (int i = 2; !used.add(path.toLowerCase()); i++) {
+            path = base + " (" + i + ")" + FILE_TYPE;
+        }
+        return path;
+    }
+
+    private static String render(RobotComponent component, Function<RobotComponent, String> include) throws IOException {
+        StringWriter out = new StringWriter();
+        RobotTreeWriter.write(component, out, include);
+        return out.toString();
+    }
+
+    private static void writeFile(Path target, String contents) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, contents.getBytes(StandardCharsets.UTF_8));
+            SaveWorker.moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Composes the documents in a file of the project.
+     */
+    private static List<Node> compose(File dir, String path, Map<String, String> contents) throws IOException {
+        File file = new File(dir, path);
+        if (!file.getCanonicalPath().startsWith(dir.getCanonicalPath() + File.separator)) {
+            throw new IOException("Project file " + path + " is outside of " + dir);
+        }
+        if (!file.isFile()) {
+            throw new FileNotFoundException("Missing project file " + file);
+        }
+        String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        contents.put(path, text);
+        List<Node> documents = new ArrayList<>();
+        try {
+            new Yaml().composeAll(new StringReader(text)).forEach(documents::add);
+        } catch (YAMLException ex) {
+            throw new IOException("Failed to load " + file + ": " + ex.getMessage(), ex);
+        }
+        if (documents.isEmpty()) {
+            throw new IOException("Empty project file " + file);
+        }
+        return documents;
+    }
+
+    /**
+     * @return The fields of a component by their name.
+     */
+    private static Map<String, Node> fields(Node component) {
+        Map<String, Node> fields = new HashMap<>();
+        if (component instanceof MappingNode) {
+            for (NodeTuple tuple : ((MappingNode) component).getValue()) {
+                if (tuple.getKeyNode() instanceof ScalarNode) {
+                    fields.put(((ScalarNode) tuple.getKeyNode()).getValue(), tuple.getValueNode());
+                }
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * @return The file a component in the manifest is included from, or null
+     * if it is in the manifest.
+     */
+    private static String getInclude(Node component) {
+        Node include = fields(component).get(INCLUDE);
+        return include instanceof ScalarNode ? ((ScalarNode) include).getValue() : null;
+    }
+
+    private static List<Node> getChildren(Node component) {
+        Node children = fields(component).get("Children");
+        return children instanceof SequenceNode ? ((SequenceNode) children).getValue() : Collections.<Node>emptyList();
+    }
+
+    private static void findIncludes(Node component, List<String> includes) {
+        for (Node child : getChildren(component)) {
+            String include = getInclude(child);
+            if (include != null) {
+                includes.add(include);
+            } else {
+                findIncludes(child, includes);
+            }
+        }
+    }
+
+    private static void resolveIncludes(Node component, Map<String, Node> parts) {
+        for (ListIterator<Node> i = getChildren(component).listIterator(); i.hasNext();) {
+            Node child = i.next();
+            String include = getInclude(child);
+            if (include != null) {
+                i.set(parts.get(include));
+            } else {
+                resolveIncludes(child, parts);
+            }
+        }
+    }
+}
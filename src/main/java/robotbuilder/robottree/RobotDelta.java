@@ -0,0 +1,497 @@
+package robotbuilder.robottree;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import robotbuilder.SimpleHistory;
+import robotbuilder.data.RobotComponent;
+import robotbuilder.data.properties.Property;
+
+/**
+ * The changes an edit made to the robot. Undo and redo apply them to the
+ * robot in place, so they don't have to rebuild it.
+ *
+ * <p>
+ * A {@link Recorder} finds the changes by comparing the robot to the
+ * {@link RobotVersion} it was after the last edit. Components are matched up
+ * by their place and type. A component that stayed put only records the
+ * property values that changed. Children that were added, removed or moved
+ * are recorded as a splice of their parent's children. Versions are never
+ * changed once built, so deltas share the parts of the versions they refer to
+ * instead of copying the robot.
+ *
+ * <p>
+ * Components are found by the indices of their ancestors as they are after
+ * the edit. A splice comes before the changes inside the children its parent
+ * kept, so redoing the changes in order and undoing them in reverse order
+ * always finds the right components.
+ */
+final class RobotDelta {
+
+    private static final int VALUES = 0;
+    private static final int SPLICE = 1;
+
+    /**
+     * Turns deltas into bytes and back, for the older part of the undo
+     * history.
+     */
+    static final SimpleHistory.Codec<RobotDelta> CODEC = new SimpleHistory.Codec<RobotDelta>() {
+        @Override
+        public byte[] encode(RobotDelta delta) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(delta.changes.size());
+            for (Change change : delta.changes) {
+                change.write(out);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        @Override
+        public RobotDelta decode(byte[] bytes) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            int count = in.readInt();
+            List<Change> changes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int kind = in.readByte();
+                if (kind == VALUES) {
+                    changes.add(Values.read(in));
+                } else if (kind == SPLICE) {
+                    changes.add(Splice.read(in));
+                } else {
+                    throw new IOException("Corrupt undo state, bad change " + kind);
+                }
+            }
+            return new RobotDelta(changes);
+        }
+    };
+
+    private final List<Change> changes;
+    private final long size;
+
+    private RobotDelta(List<Change> changes) {
+        this.changes = changes;
+        long total = 0;
+        for (Change change : changes) {
+            total += change.getSize();
+        }
+        size = total;
+    }
+
+    /**
+     * @return A delta without changes, for the state of the robot before the
+     * first edit.
+     */
+    static RobotDelta initial() {
+        return new RobotDelta(Collections.<Change>emptyList());
+    }
+
+    /**
+     * @return Roughly how many bytes of memory the delta holds on to.
+     */
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * Combines this delta with the next one if the next one changes the same
+     * values of the same components again, like a value being typed in.
+     *
+     * @param next The delta that follows this one.
+     * @return One delta that makes both changes, or null if they are not
+     * changes to the same values.
+     */
+    RobotDelta coalesce(RobotDelta next) {
+        if (changes.isEmpty() || changes.size() != next.changes.size()) {
+            return null;
+        }
+        List<Change> combined = new ArrayList<>(changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            if (!(changes.get(i) instanceof Values) || !(next.changes.get(i) instanceof Values)) {
+                return null;
+            }
+            Values first = (Values) changes.get(i);
+            Values second = (Values) next.changes.get(i);
+            if (!second.changesSameValuesAs(first)) {
+                return null;
+            }
+            combined.add(new Values(first.path, first.nameBefore, second.nameAfter, first.before, second.after));
+        }
+        return new RobotDelta(combined);
+    }
+
+    /**
+     * Takes the changes back out of the robot.
+     */
+    void undo(RobotTree robot) {
+        for (int i = changes.size() - 1; i >= 0; i--) {
+            changes.get(i).apply(robot, false);
+        }
+    }
+
+    /**
+     * Makes the changes to the robot again.
+     */
+    void redo(RobotTree robot) {
+        for (Change change : changes) {
+            change.apply(robot, true);
+        }
+    }
+
+    private static RobotComponent find(RobotComponent root, int[] path) {
+        RobotComponent component = root;
+        for (int index : path) {
+            component = (RobotComponent) component.getChildAt(index);
+        }
+        return component;
+    }
+
+    private static int[] append(int[] path, int index) {
+        int[] child = Arrays.copyOf(path, path.length + 1);
+        child[path.length] = index;
+        return child;
+    }
+
+    private static void writePath(DataOutputStream out, int[] path) throws IOException {
+        if (path == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(path.length);
+        for (int index : path) {
+            out.writeInt(index);
+        }
+    }
+
+    private static int[] readPath(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        int[] path = new int[length];
+        for (int i = 0; i < length; i++) {
+            path[i] = in.readInt();
+        }
+        return path;
+    }
+
+    private interface Change {
+
+        void apply(RobotTree robot, boolean forward);
+
+        long getSize();
+
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * The name and property values of a component that changed.
+     */
+    private static final class Values implements Change {
+
+        private final int[] path;
+        private final String nameBefore;
+        private final String nameAfter;
+        private final Map<String, byte[]> before;
+        private final Map<String, byte[]> after;
+
+        Values(int[] path, String nameBefore, String nameAfter, Map<String, byte[]> before, Map<String, byte[]> after) {
+            this.path = path;
+            this.nameBefore = nameBefore;
+            this.nameAfter = nameAfter;
+            this.before = before;
+            this.after = after;
+        }
+
+        @Override
+        public void apply(RobotTree robot, boolean forward) {
+            RobotComponent component = find(robot.getRoot(), path);
+            String name = forward ? nameAfter : nameBefore;
+            if (!name.equals(component.getName())) {
+                component.setName(name);
+            }
+            List<Property> changed = new ArrayList<>();
+            for (Map.Entry<String, byte[]> value : (forward ? after : before).entrySet()) {
+                Property property = component.getProperty(value.getKey());
+                if (property != null) {
+                    property.setValue(RobotVersion.decode(value.getValue()));
+                    changed.add(property);
+                }
+            }
+            changed.forEach(property -> robot.validate(component, property));
+        }
+
+        @Override
+        public long getSize() {
+            return RobotVersion.sizeOf(before) + RobotVersion.sizeOf(after);
+        }
+
+        /**
+         * @return Whether this changes the same values of the same component
+         * as another change, without renaming it.
+         */
+        boolean changesSameValuesAs(Values other) {
+            return Arrays.equals(path, other.path)
+                    && nameBefore.equals(nameAfter) && other.nameBefore.equals(other.nameAfter)
+                    && before.keySet().equals(other.before.keySet())
+                    && after.keySet().equals(other.after.keySet());
+        }
+
+        @Override
+        public void write(DataOutputStream out) throws IOException {
+            out.writeByte(VALUES);
+            writePath(out, path);
+            out.writeUTF(nameBefore);
+            out.writeUTF(nameAfter);
+            RobotVersion.writeValues(out, before);
+            RobotVersion.writeValues(out, after);
+        }
+
+        static Values read(DataInputStream in) throws IOException {
+            return new Values(readPath(in), in.readUTF(), in.readUTF(), RobotVersion.readValues(in), RobotVersion.readValues(in));
+        }
+    }
+
+    /**
+     * Children of a component that were replaced by others. The parent of
+     * the root is the tree itself.
+     */
+    private static final class Splice implements Change {
+
+        private final int[] path;
+        private final int index;
+        private final List<RobotVersion> removed;
+        private final List<RobotVersion> inserted;
+
+        Splice(int[] path, int index, List<RobotVersion> removed, List<RobotVersion> inserted) {
+            this.path = path;
+            this.index = index;
+            this.removed = removed;
+            this.inserted = inserted;
+        }
+
+        @Override
+        public void apply(RobotTree robot, boolean forward) {
+            List<RobotVersion> from = forward ? removed : inserted;
+            List<RobotVersion> to = forward ? inserted : removed;
+            if (path == null) {
+                robot.replaceRoot(to.get(0).toComponent(robot));
+                return;
+            }
+            RobotComponent parent = find(robot.getRoot(), path);
+            for (int i = 0; i < from.size(); i++) {
+                robot.detach((RobotComponent) parent.getChildAt(index));
+            }
+            for (int i = 0; i < to.size(); i++) {
+                RobotVersion child = to.get(i);
+                robot.attach(parent, index + i, child.toComponent(robot), child.isLoaded() || !robot.isLazyLoading());
+            }
+        }
+
+        @Override
+        public long getSize() {
+            long size = 0;
+            for (RobotVersion mirror : removed) {
+                size += mirror.getSize();
+            }
+            for (RobotVersion mirror : inserted) {
+                size += mirror.getSize();
+            }
+            return size;
+        }
+
+        @Override
+        public void write(DataOutputStream out) throws IOException {
+            out.writeByte(SPLICE);
+            writePath(out, path);
+            out.writeInt(index);
+            RobotVersion.writeVersions(out, removed);
+            RobotVersion.writeVersions(out, inserted);
+        }
+
+        static Splice read(DataInputStream in) throws IOException {
+            return new Splice(readPath(in), in.readInt(), RobotVersion.readVersions(in), RobotVersion.readVersions(in));
+        }
+    }
+
+    /**
+     * Keeps the version of the robot after the last edit and turns edits into
+     * deltas.
+     */
+    static final class Recorder {
+
+        private RobotVersion version;
+
+        /**
+         * Forgets the edits so far, the next delta starts from the robot as
+         * it is now.
+         */
+        void reset(RobotComponent root) {
+            version = RobotVersion.of(root);
+        }
+
+        /**
+         * @return The version of the robot after the last edit that was
+         * recorded.
+         */
+        RobotVersion getVersion() {
+            return version;
+        }
+
+        /**
+         * Finds the changes made to the robot since the last delta and
+         * catches the version up with them.
+         *
+         * @param root The root of the robot.
+         * @return The changes, or null if nothing changed.
+         */
+        RobotDelta record(RobotComponent root) {
+            List<Change> changes = new ArrayList<>();
+            version = next(root, changes);
+            return changes.isEmpty() ? null : new RobotDelta(changes);
+        }
+
+        /**
+         * Gets the version of the robot as it is now, without recording the
+         * changes since the last delta. It shares everything that didn't
+         * change with the last version.
+         *
+         * @param root The root of the robot.
+         * @return The version.
+         */
+        RobotVersion peek(RobotComponent root) {
+            return next(root, new ArrayList<>());
+        }
+
+        private RobotVersion next(RobotComponent root, List<Change> changes) {
+            if (version == null || !version.matches(root)) {
+                RobotVersion current = RobotVersion.of(root);
+                if (version != null) {
+                    changes.add(new Splice(null, 0, Collections.singletonList(version), Collections.singletonList(current)));
+                }
+                return current;
+            }
+            return diff(version, root, new int[0], changes);
+        }
+
+        /**
+         * Compares a component to its version, which it matches. Values that
+         * can't change in place are compared as they are, the rest are
+         * encoded and compared by their bytes.
+         *
+         * @return The new version of the component, which is the old one if
+         * nothing changed.
+         */
+        private static RobotVersion diff(RobotVersion old, RobotComponent component, int[] path, List<Change> changes) {
+            if (!component.isLoaded()) {
+                return old; // The same saved component
+            }
+            if (!old.isLoaded()) {
+                old = RobotVersion.of(old.getUnloaded()); // Loaded since
+            }
+            Map<String, Object> current = RobotVersion.valuesOf(component);
+            Map<String, byte[]> values = new LinkedHashMap<>();
+            Map<String, Object> plain = new LinkedHashMap<>();
+            Map<String, byte[]> before = new LinkedHashMap<>();
+            Map<String, byte[]> after = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> value : current.entrySet()) {
+                String key = value.getKey();
+                boolean isPlain = RobotVersion.isPlain(value.getValue());
+                byte[] bytes;
+                if (isPlain && old.getPlainValues().containsKey(key)
+                        && Objects.equals(old.getPlainValues().get(key), value.getValue())) {
+                    bytes = old.getValues().get(key);
+                } else {
+                    bytes = RobotVersion.encode(value.getValue());
+                    if (!Arrays.equals(old.getValues().get(key), bytes)) {
+                        if (old.getValues().containsKey(key)) {
+                            before.put(key, old.getValues().get(key));
+                        }
+                        after.put(key, bytes);
+                    }
+                }
+                values.put(key, bytes);
+                if (isPlain) {
+                    plain.put(key, value.getValue());
+                }
+            }
+            for (Map.Entry<String, byte[]> value : old.getValues().entrySet()) {
+                if (!current.containsKey(value.getKey())) {
+                    before.put(value.getKey(), value.getValue());
+                }
+            }
+            boolean changed = !before.isEmpty() || !after.isEmpty() || !old.getName().equals(component.getName());
+            if (changed) {
+                changes.add(new Values(path, old.getName(), component.getName(), before, after));
+            }
+
+            List<Change> nested = new ArrayList<>();
+            List<RobotVersion> children = diffChildren(old.getChildren(), component, path, changes, nested);
+            changes.addAll(nested);
+            if (!changed && children == old.getChildren()) {
+                return old;
+            }
+            return changed
+                    ? old.with(component.getName(), Collections.unmodifiableMap(values), Collections.unmodifiableMap(plain), children)
+                    : old.with(old.getName(), old.getValues(), old.getPlainValues(), children);
+        }
+
+        /**
+         * Matches up the children that are still at the start and at the end,
+         * and splices in the rest.
+         *
+         * @return The new versions of the children, which is the old list if
+         * nothing changed.
+         */
+        private static List<RobotVersion> diffChildren(List<RobotVersion> old, RobotComponent parent, int[] path,
+                List<Change> changes, List<Change> nested) {
+            List<RobotComponent> current = parent.getChildren();
+            int start = 0;
+            while (start < old.size() && start < current.size() && old.get(start).matches(current.get(start))) {
+                start++;
+            }
+            int end = 0;
+            while (end < old.size() - start && end < current.size() - start
+                    && old.get(old.size() - 1 - end).matches(current.get(current.size() - 1 - end))) {
+                end++;
+            }
+
+            List<RobotVersion> children = new ArrayList<>(current.size());
+            boolean changed = false;
+            for (int i = 0; i < current.size(); i++) {
+                RobotVersion oldChild;
+                if (i < start) {
+                    oldChild = old.get(i);
+                } else if (i >= current.size() - end) {
+                    oldChild = old.get(i - current.size() + old.size());
+                } else {
+                    children.add(RobotVersion.of(current.get(i)));
+                    continue;
+                }
+                RobotVersion child = diff(oldChild, current.get(i), append(path, i), nested);
+                changed |= child != oldChild;
+                children.add(child);
+            }
+
+            List<RobotVersion> removed = old.subList(start, old.size() - end);
+            List<RobotVersion> inserted = children.subList(start, current.size() - end);
+            if (!removed.isEmpty() || !inserted.isEmpty()) {
+                changes.add(new Splice(path, start, new ArrayList<>(removed), new ArrayList<>(inserted)));
+                changed = true;
+            }
+            return changed ? Collections.unmodifiableList(children) : old;
+        }
+    }
+}
@@ -0,0 +1,512 @@
+package robotbuilder.robottree;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import robotbuilder.RobotBuilder;
+import robotbuilder.data.RobotComponent;
+import robotbuilder.data.UnloadedComponent;
+import robotbuilder.data.properties.ParameterDescriptor;
+import robotbuilder.data.properties.ParameterSet;
+import robotbuilder.data.properties.Property;
+import robotbuilder.data.properties.ValuedParameterDescriptor;
+import robotbuilder.palette.Palette;
+
+/**
+ * A compact binary encoding of a robot, which loads much faster than the
+ * YAML save file because only property values are stored and every string is
+ * only stored once.
+ *
+ * <p>
+ * A snapshot starts with a magic number, the version of the format and the
+ * version of RobotBuilder that wrote it, followed by a table of every string
+ * in the robot and the length prefixed tree of components, which refer to
+ * strings by their index in the table. Snapshots written by another version
+ * of RobotBuilder are rejected, the YAML file is the real save file and is
+ * loaded instead. Components that had not been loaded yet when the snapshot
+ * was taken are marked, so that they are not loaded when the snapshot is
+ * restored either if the robot loads lazily.
+ *
+ * <p>
+ * Snapshot files live next to the save file and also record the size and
+ * modification time of the save file they were made from, so they are
+ * ignored once the save file is edited by something else.
+ */
+final class RobotSnapshot {
+
+    private static final int MAGIC = 0x52425353; // "RBSS"
+    static final int FORMAT_VERSION = 2;
+    static final String FILE_SUFFIX = ".snapshot";
+
+    // Value tags
+    private static final int NULL = 0;
+    private static final int STRING = 1;
+    private static final int BOOLEAN = 2;
+    private static final int INTEGER = 3;
+    private static final int LONG = 4;
+    private static final int DOUBLE = 5;
+    private static final int LIST = 6;
+    private static final int PARAMETER = 7;
+    private static final int VALUED_PARAMETER = 8;
+    private static final int PARAMETER_SET = 9;
+    private static final int SERIALIZED = 10;
+
+    private RobotSnapshot() {
+    }
+
+    /**
+     * @return The snapshot file that belongs to a save file.
+     */
+    static File getSnapshotFile(File saveFile) {
+        return new File(saveFile.getParentFile(), saveFile.getName() + FILE_SUFFIX);
+    }
+
+    /**
+     * Encodes a robot.
+     *
+     * @param root The root of the robot.
+     * @return The snapshot.
+     * @throws IOException If a property has a value that can't be stored.
+     */
+    static byte[] write(RobotComponent root) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        write(root, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes a robot to a stream.
+     *
+     * @param root The root of the robot.
+     * @param out The stream to write to. It is not closed.
+     * @throws IOException If the stream fails or a property has a value that
+     * can't be stored.
+     */
+    static void write(RobotComponent root, OutputStream out) throws IOException {
+        Encoder encoder = new Encoder();
+        encoder.writeComponent(root);
+        encoder.body.flush();
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        writeString(data, RobotBuilder.VERSION);
+        data.writeInt(encoder.strings.size());
+        for (String string : encoder.strings.keySet()) {
+            writeString(data, string);
+        }
+        data.writeInt(encoder.bytes.size());
+        encoder.bytes.writeTo(data);
+        data.flush();
+    }
+
+    /**
+     * Decodes a robot.
+     *
+     * @param snapshot The snapshot.
+     * @param robot The tree the components belong to, or null to build
+     * components that are not part of any tree, which can be written out
+     * on another thread.
+     * @return The root of the robot.
+     * @throws IOException If this is not a snapshot from this version of
+     * RobotBuilder.
+     */
+    static RobotComponent read(byte[] snapshot, RobotTree robot) throws IOException {
+        return read(new ByteArrayInputStream(snapshot), robot);
+    }
+
+    /**
+     * Decodes a robot from a stream.
+     *
+     * @param in The stream to read from. It is not closed.
+     * @param robot The tree the components belong to, or null.
+     * @return The root of the robot.
+     * @throws IOException If the stream fails or does not hold a snapshot from
+     * this version of RobotBuilder.
+     */
+    static RobotComponent read(InputStream in, RobotTree robot) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a RobotBuilder snapshot");
+        }
+        int format = data.readInt();
+        if (format != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format " + format);
+        }
+        String version = readString(data);
+        if (!version.equals(RobotBuilder.VERSION)) {
+            throw new IOException("Snapshot was made with RobotBuilder " + version);
+        }
+        String[] strings = new String[data.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(data);
+        }
+        byte[] body = new byte[data.readInt()];
+        data.readFully(body);
+        Decoder decoder = new Decoder(new DataInputStream(new ByteArrayInputStream(body)), strings, robot);
+        return decoder.readComponent();
+    }
+
+    /**
+     * Encodes a single property value with a string table of its own.
+     *
+     * @param value The value.
+     * @return The encoded value.
+     * @throws IOException If the value can't be stored.
+     */
+    static byte[] writeValue(Object value) throws IOException {
+        Encoder encoder = new Encoder();
+        encoder.writeValue(value);
+        encoder.body.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(encoder.strings.size());
+        for (String string : encoder.strings.keySet()) {
+            writeString(data, string);
+        }
+        encoder.bytes.writeTo(data);
+        data.flush();
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a value from {@link #writeValue(Object)} into a fresh object.
+     *
+     * @param value The encoded value.
+     * @return The value.
+     * @throws IOException If the value is corrupt.
+     */
+    static Object readValue(byte[] value) throws IOException {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(value));
+        String[] strings = new String[data.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(data);
+        }
+        return new Decoder(data, strings, null).readValue();
+    }
+
+    /**
+     * Writes the snapshot file of a save file that was just written.
+     *
+     * @param root The root of the robot that was saved.
+     * @param saveFile The save file.
+     * @throws IOException If the snapshot could not be written.
+     */
+    static void writeFile(RobotComponent root, File saveFile) throws IOException {
+        Path target = getSnapshotFile(saveFile).toPath();
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), saveFile.getName(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeLong(saveFile.length());
+                out.writeLong(saveFile.lastModified());
+                write(root, out);
+            }
+            SaveWorker.moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Reads the snapshot file of a save file, if it is up to date.
+     *
+     * @param saveFile The save file.
+     * @param robot The tree the components belong to.
+     * @return The root of the robot, or null if there is no usable snapshot.
+     */
+    static RobotComponent readFile(File saveFile, RobotTree robot) {
+        File snapshot = getSnapshotFile(saveFile);
+        if (!snapshot.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshot)))) {
+            if (in.readLong() != saveFile.length() || in.readLong() != saveFile.lastModified()) {
+                return null; // The save file changed since
+            }
+            return read(in, robot);
+        } catch (IOException ex) {
+            Logger.getLogger(RobotSnapshot.class.getName()).log(Level.INFO,
+                    "Ignoring snapshot " + snapshot + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the components, collecting the strings they use.
+     */
+    private static class Encoder {
+
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream body = new DataOutputStream(bytes);
+
+        private void writeComponent(RobotComponent component) throws IOException {
+            writeStringRef(component.getName());
+            writeStringRef(component.getBaseType());
+            if (!component.isLoaded()) {
+                body.writeBoolean(true);
+                writeContents(component.getUnloaded()); // Without loading it
+                return;
+            }
+            body.writeBoolean(false);
+            Map<String, Property> properties = component.getProperties();
+            body.writeInt(properties.size());
+            for (Map.Entry<String, Property> property : properties.entrySet()) {
+                writeStringRef(property.getKey());
+                writeValue(property.getValue() == null ? null : property.getValue().getValue());
+            }
+            body.writeInt(component.getChildren().size());
+            for (RobotComponent child : component.getChildren()) {
+                writeComponent(child);
+            }
+        }
+
+        private void writeContents(UnloadedComponent component) throws IOException {
+            body.writeInt(component.getValues().size());
+            for (Map.Entry<String, Object> value : component.getValues().entrySet()) {
+                writeStringRef(value.getKey());
+                writeValue(value.getValue());
+            }
+            body.writeInt(component.getChildren().size());
+            for (UnloadedComponent child : component.getChildren()) {
+                writeStringRef(child.getName());
+                writeStringRef(child.getBaseType());
+                body.writeBoolean(false);
+                writeContents(child);
+            }
+        }
+
+        private void writeStringRef(String string) throws IOException {
+            Integer index = strings.get(string);
+            if (index == null) {
+                index = strings.size();
+                strings.put(string, index);
+            }
+            body.writeInt(index);
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                body.writeByte(NULL);
+            } else if (value instanceof String) {
+                body.writeByte(STRING);
+                writeStringRef((String) value);
+            } else if (value instanceof Boolean) {
+                body.writeByte(BOOLEAN);
+                body.writeBoolean((Boolean) value);
+            } else if (value instanceof Integer) {
+                body.writeByte(INTEGER);
+                body.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                body.writeByte(LONG);
+                body.writeLong((Long) value);
+            } else if (value instanceof Double) {
+                body.writeByte(DOUBLE);
+                body.writeDouble((Double) value);
+            } else if (value.getClass() == ValuedParameterDescriptor.class) {
+                ValuedParameterDescriptor parameter = (ValuedParameterDescriptor) value;
+                body.writeByte(VALUED_PARAMETER);
+                writeStringRef(parameter.getName());
+                writeStringRef(parameter.getType());
+                writeValue(parameter.getValue());
+            } else if (value.getClass() == ParameterDescriptor.class) {
+                ParameterDescriptor parameter = (ParameterDescriptor) value;
+                body.writeByte(PARAMETER);
+                writeStringRef(parameter.getName());
+                writeStringRef(parameter.getType());
+            } else if (value.getClass() == ParameterSet.class) {
+                ParameterSet set = (ParameterSet) value;
+                body.writeByte(PARAMETER_SET);
+                writeStringRef(set.getName());
+                body.writeInt(set.getParameters().size());
+                for (ValuedParameterDescriptor parameter : set.getParameters()) {
+                    writeValue(parameter);
+                }
+            } else if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                body.writeByte(LIST);
+                body.writeInt(list.size());
+                for (Object item : list) {
+                    writeValue(item);
+                }
+            } else if (value instanceof Serializable) {
+                ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+                try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+                    out.writeObject(value);
+                }
+                body.writeByte(SERIALIZED);
+                body.writeInt(serialized.size());
+                serialized.writeTo(body);
+            } else {
+                throw new NotSerializableException(value.getClass().getName());
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the components the same way loading a save file does.
+     */
+    private static class Decoder {
+
+        private final DataInputStream body;
+        private final String[] strings;
+        private final RobotTree robot;
+
+        Decoder(DataInputStream body, String[] strings, RobotTree robot) {
+            this.body = body;
+            this.strings = strings;
+            this.robot = robot;
+        }
+
+        private RobotComponent readComponent() throws IOException {
+            String name = readStringRef();
+            String baseType = readBaseType();
+            if (body.readBoolean() && robot != null && robot.isLazyLoading()) {
+                return RobotComponent.unloaded(readContents(name, baseType), robot);
+            }
+            RobotComponent component = new RobotComponent();
+            if (robot != null) {
+                component.setRobotTree(robot);
+            }
+            component.setName(name);
+            component.setBaseType(baseType);
+            component.setPropertyValues(readValues()); // Like a loaded save file
+
+            int children = body.readInt();
+            for (int i = 0; i < children; i++) {
+                component.add(readComponent());
+            }
+            return component;
+        }
+
+        private UnloadedComponent readContents(String name, String baseType) throws IOException {
+            Map<String, Object> values = readValues();
+            int count = body.readInt();
+            List<UnloadedComponent> children = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String childName = readStringRef();
+                String childBaseType = readBaseType();
+                body.readBoolean();
+                children.add(readContents(childName, childBaseType));
+            }
+            return new UnloadedComponent(name, baseType, values, children);
+        }
+
+        private String readBaseType() throws IOException {
+            String baseType = readStringRef();
+            if (Palette.getInstance().getItem(baseType) == null) {
+                throw new IOException("Unknown component type " + baseType);
+            }
+            return baseType;
+        }
+
+        /**
+         * Reads the values of the properties of a component in the order they
+         * were saved in.
+         */
+        private Map<String, Object> readValues() throws IOException {
+            int count = body.readInt();
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = readStringRef();
+                values.put(name, readValue());
+            }
+            return values;
+        }
+
+        private String readStringRef() throws IOException {
+            int index = body.readInt();
+            if (index < 0 || index >= strings.length) {
+                throw new IOException("Corrupt snapshot, bad string " + index);
+            }
+            return strings[index];
+        }
+
+        private Object readValue() throws IOException {
+            int tag = body.readByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case STRING:
+                    return readStringRef();
+                case BOOLEAN:
+                    return body.readBoolean();
+                case INTEGER:
+                    return body.readInt();
+                case LONG:
+                    return body.readLong();
+                case DOUBLE:
+                    return body.readDouble();
+                case LIST: {
+                    int size = body.readInt();
+                    List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue());
+                    }
+                    return list;
+                }
+                case PARAMETER:
+                    return new ParameterDescriptor(readStringRef(), readStringRef());
+                case VALUED_PARAMETER:
+                    return new ValuedParameterDescriptor(readStringRef(), readStringRef(), readValue());
+                case PARAMETER_SET: {
+                    String name = readStringRef();
+                    int size = body.readInt();
+                    List<ValuedParameterDescriptor> parameters = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        parameters.add((ValuedParameterDescriptor) readValue());
+                    }
+                    return new ParameterSet(name, parameters);
+                }
+                case SERIALIZED: {
+                    byte[] serialized = new byte[body.readInt()];
+                    body.readFully(serialized);
+                    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+                        return in.readObject();
+                    } catch (ClassNotFoundException ex) {
+                        throw new IOException("Corrupt snapshot", ex);
+                    }
+                }
+                default:
+                    throw new IOException("Corrupt snapshot, bad value tag " + tag);
+            }
+        }
+    }
+}
@@ -2,31 +2,44 @@
 package robotbuilder.robottree;
 
 import java.awt.BorderLayout;
+import java.awt.GraphicsEnvironment;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BiPredicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,7 +51,10 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTree;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.ToolTipManager;
+import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeWillExpandListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeCellRenderer;
@@ -50,6 +66,8 @@ import javax.swing.tree.TreeSelectionModel;
 import lombok.Getter;
 
 import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.ScalarNode;
 
 import robotbuilder.MainFrame;
 import robotbuilder.palette.Palette;
@@ -58,7 +76,6 @@ import robotbuilder.RobotBuilder;
 import robotbuilder.SimpleHistory;
 import robotbuilder.data.PaletteComponent;
 import robotbuilder.data.RobotComponent;
-import robotbuilder.data.RobotVisitor;
 import robotbuilder.data.RobotWalker;
 import robotbuilder.data.Validator;
 import robotbuilder.data.properties.Property;
@@ -96,36 +113,134 @@ public class RobotTree extends JPanel {
      */
     private String filePath = null;
 
+    /**
+     * How much memory the undo history uses by default, in bytes.
+     */
+    public static final long DEFAULT_UNDO_BUDGET = 32L * 1024 * 1024;
+    /**
+     * How many of the newest changes the undo history keeps as they are. The
+     * older ones are compressed.
+     */
+    private static final int HOT_UNDO_STATES = 20;
+    /**
+     * How many bytes of compressed changes the undo history keeps in memory
+     * before the oldest go to disk.
+     */
+    private static final long COMPRESSED_UNDO_LIMIT = 4L * 1024 * 1024;
+
+    @Getter
+    private SimpleHistory<RobotDelta> history = new SimpleHistory<>(RobotDelta::getSize, DEFAULT_UNDO_BUDGET);
+    /**
+     * Remembers the version of the robot after the last edit, to find out
+     * what the next one changed. Saves and autosaves write that version.
+     */
+    private final RobotDelta.Recorder recorder = new RobotDelta.Recorder();
+    /**
+     * How many milliseconds apart changes to the same values may be to
+     * become a single undo step.
+     */
+    private int coalesceWindow = 500;
+    private long lastSnapshotTime = 0;
+    /**
+     * How many transactions are open, see {@link #beginTransaction()}.
+     */
+    private int transactionDepth = 0;
+    private boolean snapshotPending = false;
+    private boolean updatePending = false;
+    /**
+     * Properties changed in the transaction, by identity since
+     * Property.equals compares values, and in the order they changed.
+     */
+    private final Map<Property, RobotComponent> pendingValidation = new IdentityHashMap<>();
+    private final List<Property> pendingValidationOrder = new ArrayList<>();
+    private final ValidationCache validation = new ValidationCache();
+    private final ValidationWorker validationWorker = new ValidationWorker(this, validation);
+    /**
+     * Whether to keep a binary snapshot next to the save file, which is
+     * loaded instead of the save file while it is up to date.
+     */
+    @Getter
+    private boolean fileSnapshots = false;
+    /**
+     * Whether opening a file only builds the top level of the robot. The
+     * components in the Subsystems, Operator Interface and Commands folders
+     * are built once they are used, see {@link RobotComponent#load()}.
+     */
     @Getter
-    private SimpleHistory<String> history = new SimpleHistory<>();
+    private boolean lazyLoading = false;
+    /**
+     * Remembers which files of a project directory need to be written.
+     */
+    private final ProjectDirectory projectDirectory = new ProjectDirectory();
+    /**
+     * Writes save files off the event dispatch thread.
+     */
+    private final SaveWorker saveWorker = new SaveWorker(projectDirectory);
+    /**
+     * Starts an autosave once editing pauses, null while autosave is off.
+     */
+    private Timer autosaveTimer;
 
-    private JFileChooser fileChooser = new JFileChooser();
+    /**
+     * Null without a user interface, like {@link #tree} and
+     * {@link #properties}.
+     */
+    private JFileChooser fileChooser;
     Palette palette;
 
     @Getter
     private RobotComponent dndData;
     private Mouse jtma;
 
+    /**
+     * Creates a robot tree without any user interface, for loading and
+     * exporting save files from the command line. Nothing is shown and no
+     * dialogs are opened, so this also works without a screen.
+     *
+     * @param palette The palette.
+     */
+    public RobotTree(Palette palette) {
+        this(null, palette);
+    }
+
     public RobotTree(PropertiesDisplay properties, Palette palette) {
         this.palette = palette;
-        fileChooser.setFileFilter(new FileNameExtensionFilter("YAML save file", "yaml", "yml"));
         this.properties = properties;
-        this.properties.setRobotTree(this);
-        setLayout(new BorderLayout());
         RobotComponent root = makeTreeRoot();
         treeModel = new DefaultTreeModel(root);
+        validators = palette.getValidators();
+        if (properties != null) {
+            createView(root);
+        }
+        for (String topLevelComponentName : topLevelComponentNames) {
+            addName(topLevelComponentName);
+        }
+        recorder.reset(getRoot());
+        history.setTiers(RobotDelta.CODEC, HOT_UNDO_STATES, COMPRESSED_UNDO_LIMIT);
+        history.addState(RobotDelta.initial());
+        saved = true;
+    }
+
+    /**
+     * Builds the tree that shows the robot and hooks it up to the properties.
+     */
+    private void createView(RobotComponent root) {
+        fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter("YAML save file", "yaml", "yml"));
+        properties.setRobotTree(this);
+        setLayout(new BorderLayout());
         tree = new JTree(treeModel) {
             @Override
             public String getToolTipText(MouseEvent e) {
                 try {
                     TreePath path = getClosestPathForLocation(e.getX(), e.getY());
                     final RobotComponent component = (RobotComponent) path.getLastPathComponent();
-                    if (component.isValid()) {
+                    if (!component.isLoaded() || RobotTree.this.isValid(component)) {
                         return component.getBase().getHelp();
                     } else {
                         // HTML to get multi-line text.
                         return "<html>" + component.getBase().getHelp() + "<br/>"
-                                + component.getErrorMessage().replace("\n", "<br/>") + "</html>";
+                                + RobotTree.this.getErrorMessage(component).replace("\n", "<br/>") + "</html>";
                     }
                 } catch (ClassCastException ex) { // Ignore folders
                     return null;
@@ -143,14 +258,25 @@ public class RobotTree extends JPanel {
         tree.setDragEnabled(true);
         ToolTipManager.sharedInstance().registerComponent(tree);
 
-        validators = palette.getValidators();
-
         tree.setCellRenderer(new RobotTreeCellRenderer());
 
         for (int i = 0; i < tree.getRowCount(); i++) {
             tree.expandRow(i);
         }
         tree.addMouseListener(new RightClickMouseAdapter());
+        tree.addTreeWillExpandListener(new TreeWillExpandListener() {
+            @Override
+            public void treeWillExpand(TreeExpansionEvent event) {
+                Object node = event.getPath().getLastPathComponent();
+                if (node instanceof RobotComponent) {
+                    ((RobotComponent) node).load();
+                }
+            }
+
+            @Override
+            public void treeWillCollapse(TreeExpansionEvent event) {
+            }
+        });
         tree.setFocusable(true);
         this.setFocusable(true);
         tree.addKeyListener(new KeyAdapter() {
@@ -183,13 +309,8 @@ public class RobotTree extends JPanel {
                 }
             }
         });
-        for (String topLevelComponentName : topLevelComponentNames) {
-            addName(topLevelComponentName);
-        }
         SwingUtilities.invokeLater(() -> properties.setCurrentComponent(root));
-        tree.setSelectionPath(new TreePath(getRoot()));
-        history.addState(encode());
-        saved = true;
+        tree.setSelectionPath(new TreePath(root));
     }
 
     /**
@@ -229,7 +350,9 @@ public class RobotTree extends JPanel {
      */
     public void setFilePath(String filePath) {
         this.filePath = filePath;
-        MainFrame.getInstance().setTitle("FRC RobotBuilder" + (filePath == null ? "" : " -- " + filePath));
+        if (!GraphicsEnvironment.isHeadless()) {
+            MainFrame.getInstance().setTitle("FRC RobotBuilder" + (filePath == null ? "" : " -- " + filePath));
+        }
     }
 
     /**
@@ -245,7 +368,7 @@ public class RobotTree extends JPanel {
      * @param component The type of component to generate a default name for.
      * @return The default name.
      */
-    String getDefaultComponentName(PaletteComponent componentType, String subsystem) {
+    public String getDefaultComponentName(PaletteComponent componentType, String subsystem) {
         int i = 1;
         String name;
         while (true) {
@@ -293,25 +416,95 @@ public class RobotTree extends JPanel {
      * @param path
      */
     public void save(String path) {
-        setFilePath(path);
         try {
-            FileWriter save = new FileWriter(path);
-            save.write(this.encode());
-            save.close();
-        } catch (IOException ex) {
-            Logger.getLogger(RobotTree.class.getName()).log(Level.SEVERE, null, ex);
+            saveInBackground(path).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            // Already reported
         }
+    }
+
+    /**
+     * Saves to a file on the I/O thread. The robot is copied before this
+     * returns, so it can be edited while the file is being written. The status
+     * bar shows when the save is done or why it failed.
+     *
+     * @param path The file to save to.
+     * @return The pending save.
+     */
+    public Future<Void> saveInBackground(String path) {
+        setFilePath(path);
+        RobotVersion version = recorder.peek(getRoot());
         saved = true;
-        MainFrame.getInstance().prefs.put("FileName", getFilePath());
+        if (!GraphicsEnvironment.isHeadless()) {
+            MainFrame.getInstance().prefs.put("FileName", getFilePath());
+        }
+        File target = new File(path);
+        return saveWorker.save(version, target, fileSnapshots && !ProjectDirectory.isManifest(target), getRecoveryFile(),
+                error -> reportSave(path, error));
+    }
+
+    /**
+     * Saves to a project directory on the I/O thread, with a file for each
+     * subsystem, command and the operator interface instead of a single save
+     * file. Saving to a single file again converts the robot back.
+     *
+     * @param directory The directory to save to.
+     * @return The pending save.
+     */
+    public Future<Void> saveAsProject(File directory) {
+        return saveInBackground(new File(directory, ProjectDirectory.MANIFEST).getAbsolutePath());
+    }
+
+    private void reportSave(String path, Exception error) {
+        if (error != null) {
+            Logger.getLogger(RobotTree.class.getName()).log(Level.SEVERE, "Could not save " + path, error);
+        }
+        if (GraphicsEnvironment.isHeadless()) {
+            if (error != null) {
+                saved = false;
+            }
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                saved = false;
+                MainFrame.getInstance().setStatus("Could not save " + new File(path).getName() + ": " + error.getMessage());
+            } else {
+                MainFrame.getInstance().setStatus("Saved " + new File(path).getName() + ".");
+            }
+        });
     }
 
     public void save() {
+        if (chooseFilePath()) {
+            save(filePath);
+        }
+    }
+
+    /**
+     * Saves to the current file on the I/O thread, asking for a file first if
+     * there isn't one yet.
+     */
+    public void saveInBackground() {
+        if (chooseFilePath()) {
+            saveInBackground(filePath);
+        }
+    }
+
+    /**
+     * Asks for a file to save to if there isn't one yet.
+     *
+     * @return False if the user cancelled.
+     */
+    private boolean chooseFilePath() {
         if (getFilePath() == null) {
             int result = fileChooser.showSaveDialog(MainFrame.getInstance());
             if (result == JFileChooser.CANCEL_OPTION) {
-                return;
+                return false;
             } else if (result == JFileChooser.ERROR_OPTION) {
-                return;
+                return false;
             } else if (result == JFileChooser.APPROVE_OPTION) {
                 setFilePath(fileChooser.getSelectedFile().getAbsolutePath());
                 if (!filePath.endsWith(RobotBuilder.SAVE_FILE_TYPE)) {
@@ -319,7 +512,7 @@ public class RobotTree extends JPanel {
                 }
             }
         }
-        save(filePath);
+        return true;
     }
 
     /**
@@ -330,39 +523,41 @@ public class RobotTree extends JPanel {
      * @return The encoded state.
      */
     public String encode() {
-        Object out = ((RobotComponent) treeModel.getRoot()).visit(new RobotVisitor() {
-            @Override
-            public Object visit(RobotComponent self, Object... extra) {
-                Map<String, Object> me = new HashMap<>();
-                me.put("Name", self.getName());
-                me.put("Base", self.getBaseType());
-                me.put("Properties", self.getProperties());
-                List<Object> children = new ArrayList<>();
-                for (Iterator it = self.getChildren().iterator(); it.hasNext();) {
-                    RobotComponent child = (RobotComponent) it.next();
-                    children.add(child.visit(this));
-                }
-                me.put("Children", children);
-                return me;
-            }
-        }, (Object[]) null);
-        Yaml yaml = new Yaml();
-        return yaml.dump("Version " + RobotBuilder.VERSION) + "\n---\n" + yaml.dump(out);
+        StringWriter out = new StringWriter();
+        try {
+            RobotTreeWriter.write((RobotComponent) treeModel.getRoot(), out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex); // StringWriter doesn't throw
+        }
+        return out.toString();
     }
 
     /**
-     * Load the RobotTree from a yaml file.
+     * Load the RobotTree from a yaml file, or from the manifest of a project
+     * directory.
      *
      * @param path
      */
     public void load(File path) {
-        try {
-            FileReader source = new FileReader(path);
-            load(source);
-        } catch (FileNotFoundException ex) {
-            Logger.getLogger(RobotTree.class.getName()).log(Level.SEVERE, null, ex);
+        if (readSnapshotFile(path)) {
+            setFilePath(path.getAbsolutePath());
+            return;
+        }
+        boolean loaded = false;
+        if (ProjectDirectory.isManifest(path)) {
+            loaded = load(() -> projectDirectory.read(path).iterator());
+        } else {
+            try {
+                Reader source = new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8);
+                loaded = load(source);
+            } catch (FileNotFoundException ex) {
+                Logger.getLogger(RobotTree.class.getName()).log(Level.SEVERE, null, ex);
+            }
         }
         setFilePath(path.getAbsolutePath());
+        if (loaded) {
+            writeSnapshotFile(path);
+        }
     }
 
     /**
@@ -378,64 +573,23 @@ public class RobotTree extends JPanel {
      * Load the RobotTree from a yaml string.
      *
      * @param in
+     * @return Whether the robot was loaded.
      */
-    public void load(Reader in) {
-        resetTree();
-
-        Iterator docs = new Yaml().loadAll(in).iterator();
-
-        String version = (String) docs.next();
-        if (!isVersionCompatible(version)) {
-            JOptionPane.showMessageDialog(MainFrame.getInstance(),
-                    "File was made with RobotBuilder " + version.replace("V", "v")
-                    + ", which is incompatable with version " + RobotBuilder.VERSION + ".",
-                    "Wrong Version", JOptionPane.ERROR_MESSAGE);
-            return; // Give up
-        }
+    public boolean load(Reader in) {
+        return load(() -> new Yaml().composeAll(in).iterator());
+    }
 
+    /**
+     * Load the RobotTree from the documents of a save file, showing a dialog
+     * if that fails.
+     */
+    private boolean load(Callable<Iterator<Node>> documents) {
         try {
-            Map<String, Object> details = (Map<String, Object>) docs.next();
-            RobotComponent root = new RobotComponent();
-
-            root.visit(new RobotVisitor() {
-                @Override
-                public Object visit(RobotComponent self, Object... extra) {
-                    Map<String, Object> details = (Map<String, Object>) extra[0];
-                    self.setRobotTree(RobotTree.this);
-                    self.setName((String) details.get("Name"));
-                    self.setBaseType((String) details.get("Base"));
-                    self.setProperties((Map<String, Property>) details.get("Properties"));
-                    for (String propertyName : self.getBase().getPropertiesKeys()) {
-                        Object value = self.getProperties().get(propertyName);
-                        if (value != null) {
-                            value = ((Property) value).getValue();
-                        }
-                        Property property = self.getBase().getProperty(propertyName).copy();
-                        property.setComponent(self);
-                        if (value != null) {
-                            property.setValue(value);
-                        }
-                        self.getProperties().put(propertyName, property);
-                    }
-                    for (Object childDescription : (List) details.get("Children")) {
-                        RobotComponent child = new RobotComponent();
-                        child.visit(this, (Map<String, Object>) childDescription);
-                        self.add(child);
-                    }
-                    return null;
-                }
-            }, details);
-
-            treeModel.setRoot(root);
-
-            // Validate loaded ports
-            ((RobotComponent) treeModel.getRoot()).walk(component -> component.getProperties().values().forEach(Property::update));
-
-            properties.setCurrentComponent(root);
-            update();
-
-            // Add names to used names list
-            walk(component -> addName(component.getFullName()));
+            read(documents.call());
+            return true;
+        } catch (IncompatibleVersionException e) {
+            JOptionPane.showMessageDialog(MainFrame.getInstance(),
+                    e.getMessage(), "Wrong Version", JOptionPane.ERROR_MESSAGE);
         } catch (Exception e) {
             e.printStackTrace();
             StringWriter writer = new StringWriter();
@@ -446,6 +600,97 @@ public class RobotTree extends JPanel {
                     + "\nMessage: " + e.getMessage() + "\nStacktrace:\n" + writer.toString().substring(0, 500),
                     "Failed to Load File", JOptionPane.ERROR_MESSAGE);
         }
+        return false;
+    }
+
+    /**
+     * Load the RobotTree from a yaml file, or from the manifest of a project
+     * directory, without showing any dialogs. Used by the headless batch
+     * exporter.
+     *
+     * @param path
+     * @throws IOException If the file cannot be read or is not a valid save
+     * file for this version of RobotBuilder.
+     */
+    public void read(File path) throws IOException {
+        if (readSnapshotFile(path)) {
+            setFilePath(path.getAbsolutePath());
+            return;
+        }
+        try {
+            if (ProjectDirectory.isManifest(path)) {
+                read(projectDirectory.read(path).iterator());
+            } else {
+                try (Reader source = new BufferedReader(new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8))) {
+                    read(source);
+                }
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to load " + path + ": " + e.getMessage(), e);
+        }
+        setFilePath(path.getAbsolutePath());
+        writeSnapshotFile(path);
+    }
+
+    /**
+     * Load the RobotTree from a yaml string without showing any dialogs.
+     *
+     * @param in
+     * @throws IncompatibleVersionException If the file was made by a newer
+     * version of RobotBuilder.
+     */
+    public void read(Reader in) throws IncompatibleVersionException {
+        read(new Yaml().composeAll(in).iterator());
+    }
+
+    /**
+     * Load the RobotTree from the composed documents of a save file: the
+     * version and the robot.
+     */
+    private void read(Iterator<Node> docs) throws IncompatibleVersionException {
+        resetTree();
+
+        Node versionNode = docs.hasNext() ? docs.next() : null;
+        String version = versionNode instanceof ScalarNode ? ((ScalarNode) versionNode).getValue() : "";
+        if (!isVersionCompatible(version)) {
+            throw new IncompatibleVersionException("File was made with RobotBuilder " + version.replace("V", "v")
+                    + ", which is incompatable with version " + RobotBuilder.VERSION + ".");
+        }
+
+        if (!docs.hasNext()) {
+            throw new IllegalArgumentException("The save file has no robot in it");
+        }
+        setLoadedRoot(new RobotTreeReader(this, lazyLoading).read(docs.next()));
+    }
+
+    /**
+     * Makes a freshly loaded robot the current robot.
+     */
+    private void setLoadedRoot(RobotComponent root) {
+        treeModel.setRoot(root);
+        validation.reset();
+        validationWorker.schedule();
+
+        // Validate loaded ports, the rest are validated when they are loaded
+        root.walkLoaded(component -> {
+            if (component.isLoaded()) {
+                component.getProperties().values().forEach(Property::update);
+            }
+        });
+
+        if (properties != null) {
+            properties.setCurrentComponent(root);
+        }
+        update();
+
+        // Add names to used names list
+        root.walkLoaded(component -> addName(component.getFullName()));
+        root.anyUnloaded((name, base) -> {
+            addName(name);
+            return false;
+        });
     }
 
     private boolean isVersionCompatible(String fileVersion) {
@@ -494,10 +739,37 @@ public class RobotTree extends JPanel {
         ((RobotComponent) this.treeModel.getRoot()).walk(walker);
     }
 
+    /**
+     * Walks the robot, but only loads components that have a descendant the
+     * walker may be looking for.
+     *
+     * @param wanted Given the full name and the palette component of
+     * components that haven't been loaded.
+     * @param walker The walker.
+     */
+    private void walk(RobotComponent component, BiPredicate<String, PaletteComponent> wanted, RobotWalker walker) {
+        if (!component.isLoaded() && component.anyUnloaded(wanted)) {
+            component.load();
+        }
+        if (component.isLoaded()) {
+            for (RobotComponent child : component.getChildren()) {
+                walk(child, wanted, walker);
+            }
+        }
+        walker.handleRobotComponent(component);
+    }
+
     /**
      * Updates the UI display to adjust for changed names.
      */
     public void update() {
+        if (transactionDepth > 0) {
+            updatePending = true;
+            return;
+        }
+        if (tree == null) {
+            return;
+        }
         TreePath path = tree.getSelectionPath();
         if (path != null) {
             treeModel.reload((TreeNode) path.getLastPathComponent());
@@ -507,7 +779,10 @@ public class RobotTree extends JPanel {
         properties.update();
 
         for (int i = 0; i < tree.getRowCount(); i++) {
-            tree.expandRow(i);
+            Object node = tree.getPathForRow(i).getLastPathComponent();
+            if (!(node instanceof RobotComponent) || ((RobotComponent) node).isLoaded()) {
+                tree.expandRow(i); // Leave unloaded components for the user to open
+            }
         }
     }
 
@@ -531,6 +806,7 @@ public class RobotTree extends JPanel {
      * @return True if it's okay to close the application frame, else false.
      */
     public boolean OKToClose() {
+        saveWorker.finish(); // Don't exit in the middle of writing a file
         String[] options = {"Save", "Discard", "Cancel"};
         if (saved) {
             return true;
@@ -569,16 +845,22 @@ public class RobotTree extends JPanel {
             saved = true;
             setFilePath(null);
             MainFrame.getInstance().prefs.put("FileName", "");
-            properties.setCurrentComponent(getRoot());
+            if (properties != null) {
+                properties.setCurrentComponent(getRoot());
+            }
         }
     }
 
     private void resetTree() {
         DefaultMutableTreeNode root = makeTreeRoot();
         treeModel.setRoot(root);
-        tree.setSelectionPath(new TreePath(root));
+        if (tree != null) {
+            tree.setSelectionPath(new TreePath(root));
+        }
         usedNames = new HashSet<>();
         validators = palette.getValidators();
+        validation.reset();
+        validationWorker.schedule();
     }
 
     /**
@@ -590,7 +872,7 @@ public class RobotTree extends JPanel {
 
     public List<RobotComponent> getSubsystems() {
         List<RobotComponent> subsystems = new LinkedList<>();
-        walk(component -> {
+        walk(getRoot(), (name, base) -> base.getType().equals("Subsystem"), component -> {
             if (component.getBase().getType().equals("Subsystem")) {
                 subsystems.add(component);
             }
@@ -601,7 +883,7 @@ public class RobotTree extends JPanel {
 
     public List<RobotComponent> getCommands() {
         List<RobotComponent> commands = new LinkedList<>();
-        walk(component -> {
+        walk(getRoot(), (name, base) -> base.getType().equals("Command"), component -> {
             if (component.getBase().getType().equals("Command")) {
                 commands.add(component);
             }
@@ -612,7 +894,7 @@ public class RobotTree extends JPanel {
 
     public RobotComponent getComponentByName(final String name) {
         final RobotComponent[] component = new RobotComponent[1];
-        walk((RobotComponent self) -> {
+        walk(getRoot(), (fullName, base) -> fullName.equals(name), (RobotComponent self) -> {
             if (self.getFullName().equals(name)) {
                 component[0] = self;
             }
@@ -620,37 +902,449 @@ public class RobotTree extends JPanel {
         return component[0];
     }
 
+    /**
+     * Checks the whole robot, loading the components that haven't been
+     * loaded. Only the components that changed since the last check are
+     * checked again, see {@link ValidationCache}.
+     *
+     * @return False if any component is invalid.
+     */
     public boolean isRobotValid() {
-        final boolean valid[] = {true};
-        walk((RobotComponent self) -> {
-            if (!self.isValid()) {
-                valid[0] = false;
-            }
-        });
+        return validation.isRobotValid(getRoot(), true);
+    }
+
+    /**
+     * Checks a component, unless nothing it depends on changed since it was
+     * last checked.
+     *
+     * @param component The component.
+     * @return Whether it is valid.
+     */
+    public boolean isValid(RobotComponent component) {
+        return validation.isValid(component, getRoot());
+    }
+
+    /**
+     * Checks the components that have been loaded, without loading the rest.
+     * Components that haven't been loaded are as they were saved.
+     *
+     * @return False if any loaded component is invalid.
+     */
+    public boolean isLoadedRobotValid() {
+        return validation.isRobotValid(getRoot(), false);
+    }
+
+    /**
+     * The errors of a component and everything in it that has been loaded,
+     * like {@link RobotComponent#getErrorMessage()}. The errors are kept for
+     * each component along with the errors of everything in it, and are only
+     * put together again for the components whose errors changed and the
+     * components they are in.
+     *
+     * @param component The component.
+     * @return The errors, or an empty string.
+     */
+    public String getErrorMessage(RobotComponent component) {
+        if (component.getRoot() != getRoot()) {
+            return component.getErrorMessage();
+        }
+        validation.isRobotValid(getRoot(), false);
+        return validation.getErrorMessage(component);
+    }
+
+    /**
+     * Loads and checks the whole robot.
+     *
+     * @return The errors of every component, or an empty string.
+     */
+    public String getRobotErrorMessage() {
+        validation.isRobotValid(getRoot(), true);
+        return validation.getErrorMessage(getRoot());
+    }
+
+    /**
+     * Whether a component was valid when it was last checked, without
+     * checking it again. While the robot is edited, the components that
+     * changed are checked in the background and the tree, the properties and
+     * the status bar are updated as they are, see {@link ValidationWorker}.
+     *
+     * @param component The component.
+     * @return False if it was invalid.
+     */
+    public boolean wasValid(RobotComponent component) {
+        return validation.wasValid(component);
+    }
+
+    /**
+     * @return Whether every component that has been loaded was valid when
+     * it was last checked, without checking them again.
+     */
+    public boolean wasLoadedRobotValid() {
+        return validation.wasRobotValid();
+    }
 
-        return valid[0];
+    /**
+     * Shows the results of checking a slice of the robot in the background.
+     *
+     * @param flipped The components that became valid or invalid.
+     * @param done Whether every component that changed has been checked.
+     */
+    void publishValidation(List<RobotComponent> flipped, boolean done) {
+        if (properties == null) {
+            return;
+        }
+        RobotComponent current = properties.getCurrentComponent();
+        for (RobotComponent component : flipped) {
+            treeModel.nodeChanged(component);
+            if (component == current) {
+                properties.updateErrorLabel();
+            }
+        }
+        if (done && MainFrame.getInstance().getCurrentRobotTree() == this) {
+            MainFrame.getInstance().updateStatus();
+        }
     }
 
     /**
-     * Takes a snapshot of the current state and dirties the save flag.
+     * Records the changes since the last snapshot in the undo history and
+     * dirties the save flag. Changes to the same values that follow each
+     * other quickly become a single undo step.
      */
     public void takeSnapshot() {
         saved = false;
-        history.addState(encode());
+        if (transactionDepth > 0) {
+            snapshotPending = true;
+            return;
+        }
+        // Checking picks the default of selections that weren't set, which
+        // loading the components again on undo does as well. The tree is
+        // repainted after the edit and the queued slice updates the status.
+        validation.isRobotValid(getRoot(), false);
+        RobotDelta delta = recorder.record(getRoot());
+        if (delta != null) {
+            long now = System.currentTimeMillis();
+            RobotDelta coalesced = now - lastSnapshotTime < coalesceWindow
+                    ? history.getCurrentState().coalesce(delta) : null;
+            if (coalesced != null) {
+                history.replaceCurrentState(coalesced);
+            } else {
+                history.addState(delta);
+            }
+            lastSnapshotTime = now;
+            showHistorySize();
+        }
+        if (autosaveTimer != null) {
+            autosaveTimer.restart();
+        }
+    }
+
+    /**
+     * Sets how quickly changes to the same values have to follow each other
+     * to become a single undo step.
+     *
+     * @param window The time in milliseconds, or 0 to never combine changes.
+     */
+    public void setCoalesceWindow(int window) {
+        coalesceWindow = window;
+    }
+
+    /**
+     * Starts a transaction, which makes a number of changes a single edit.
+     * Until the outermost transaction is committed, snapshots, validating
+     * changed properties and refreshing the tree are put off, and then each
+     * happens once. Transactions can be nested.
+     */
+    public void beginTransaction() {
+        transactionDepth++;
+    }
+
+    /**
+     * Commits the innermost transaction.
+     *
+     * @throws IllegalStateException If no transaction was begun.
+     */
+    public void commitTransaction() {
+        if (transactionDepth == 0) {
+            throw new IllegalStateException("No transaction to commit");
+        }
+        if (--transactionDepth > 0) {
+            return;
+        }
+        Map<Property, RobotComponent> validate = new IdentityHashMap<>(pendingValidation);
+        List<Property> order = new ArrayList<>(pendingValidationOrder);
+        pendingValidation.clear();
+        pendingValidationOrder.clear();
+        order.forEach(property -> validate(validate.get(property), property));
+        validationWorker.schedule(); // For components added or removed in the transaction
+        if (snapshotPending) {
+            snapshotPending = false;
+            takeSnapshot();
+        }
+        if (updatePending) {
+            updatePending = false;
+            update();
+        }
+    }
+
+    /**
+     * Makes a number of changes in a transaction.
+     *
+     * @param edit Makes the changes.
+     */
+    public void transaction(Runnable edit) {
+        beginTransaction();
+        try {
+            edit.run();
+        } finally {
+            commitTransaction();
+        }
+    }
+
+    /**
+     * @return Whether a transaction is open.
+     */
+    public boolean isInTransaction() {
+        return transactionDepth > 0;
+    }
+
+    /**
+     * Updates the validators of a property that changed, or once the
+     * transaction is committed.
+     *
+     * @param component The component the property belongs to.
+     * @param property The property.
+     */
+    public void validate(RobotComponent component, Property property) {
+        if (transactionDepth > 0) {
+            if (pendingValidation.put(property, component) == null) {
+                pendingValidationOrder.add(property);
+            }
+        } else {
+            property.update();
+            validation.changed(component, property);
+            validationWorker.schedule();
+        }
     }
 
     /**
-     * Reverts to the previous snapshot if one exists.
+     * Called when a component is added to the robot, including when it is
+     * moved.
+     */
+    public void componentAdded(RobotComponent component) {
+        validation.added(component);
+        validationWorker.schedule();
+    }
+
+    /**
+     * Called when a component is taken out of the robot.
+     */
+    public void componentRemoved(RobotComponent parent, RobotComponent component) {
+        validation.removed(parent, component);
+        validationWorker.schedule();
+    }
+
+    /**
+     * Called when a component of the robot is renamed.
+     */
+    public void componentRenamed(RobotComponent component) {
+        validation.renamed(component);
+        validationWorker.schedule();
+    }
+
+    /**
+     * Turns on autosaving to a recovery file, which happens on the I/O thread
+     * once there have been no changes for the given time.
+     *
+     * @param delay The time to wait in milliseconds, or 0 to turn autosave
+     * off.
+     */
+    public void setAutosaveDelay(int delay) {
+        if (autosaveTimer != null) {
+            autosaveTimer.stop();
+            autosaveTimer = null;
+        }
+        if (delay > 0) {
+            autosaveTimer = new Timer(delay, e -> autosave());
+            autosaveTimer.setRepeats(false);
+        }
+    }
+
+    private void autosave() {
+        if (!saved) {
+            saveWorker.autosave(recorder.getVersion(), getRecoveryFile()); // Recorded by the snapshot that started the timer
+        }
+    }
+
+    /**
+     * @return The file autosaves go to: next to the save file, or in the home
+     * directory for robots that haven't been saved yet.
+     */
+    public File getRecoveryFile() {
+        if (filePath != null) {
+            return new File(filePath + ".recovery");
+        }
+        return new File(System.getProperty("user.home"), ".robotbuilder-recovery." + RobotBuilder.SAVE_FILE_TYPE);
+    }
+
+    /**
+     * Reverts the last change if there is one.
      */
     public void undo() {
-        load(history.undo());
+        RobotDelta current = history.getCurrentState();
+        if (history.undo() != current) {
+            current.undo(this);
+            changedByHistory();
+        }
     }
 
     /**
-     * Changes to the next snapshot if one exists.
+     * Makes the last change that was undone again if there is one.
      */
     public void redo() {
-        load(history.redo());
+        RobotDelta current = history.getCurrentState();
+        RobotDelta next = history.redo();
+        if (next != current) {
+            next.redo(this);
+            changedByHistory();
+        }
+    }
+
+    /**
+     * Sets how much memory the undo history may use. The oldest changes are
+     * forgotten once it uses more.
+     *
+     * @param budget The budget in bytes.
+     */
+    public void setUndoBudget(long budget) {
+        history.setBudget(budget);
+    }
+
+    private void changedByHistory() {
+        recorder.record(getRoot()); // Catches the mirror up with the change that was just applied
+        lastSnapshotTime = 0; // Never combine the next change with one that was undone or redone
+        update();
+        showHistorySize();
+    }
+
+    /**
+     * Shows how big the undo history is in the status bar.
+     */
+    private void showHistorySize() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return;
+        }
+        long disk = history.getDiskSize();
+        String status = "History: " + history.getUndoSize() + " undo, " + history.getRedoSize() + " redo, "
+                + formatBytes(history.getSize()) + " in memory"
+                + (disk > 0 ? ", " + formatBytes(disk) + " on disk" : "");
+        SwingUtilities.invokeLater(() -> MainFrame.getInstance().setHistoryStatus(status));
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        }
+        return String.format("%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    /**
+     * Takes a component out of the robot for an undo or redo.
+     */
+    void detach(RobotComponent component) {
+        component.anyUnloaded((name, base) -> {
+            removeName(name);
+            return false;
+        });
+        component.walkLoaded(self -> {
+            if (self.isLoaded()) {
+                self.handleDelete();
+            }
+            removeName(self.getFullName());
+        });
+        RobotComponent current = properties == null ? null : properties.getCurrentComponent();
+        if (current != null && current.isNodeAncestor(component)) {
+            properties.setCurrentComponent((RobotComponent) component.getParent());
+        }
+        component.removeFromParent(); // The tree is reloaded once the change is applied
+    }
+
+    /**
+     * Puts a component that hasn't been loaded into the robot for an undo or
+     * redo.
+     *
+     * @param load Whether to load it right away.
+     */
+    void attach(RobotComponent parent, int index, RobotComponent component, boolean load) {
+        parent.insert(component, index);
+        addName(component.getFullName());
+        component.anyUnloaded((name, base) -> {
+            addName(name);
+            return false;
+        });
+        if (load) {
+            component.load();
+        }
+    }
+
+    /**
+     * Replaces the whole robot with one that hasn't been loaded for an undo
+     * or redo.
+     */
+    void replaceRoot(RobotComponent root) {
+        resetTree(); // Properties look up components while being loaded
+        treeModel.setRoot(root);
+        root.load();
+        setLoadedRoot(root);
+    }
+
+    /**
+     * Enables or disables lazy loading for files opened from now on.
+     */
+    public void setLazyLoading(boolean lazyLoading) {
+        this.lazyLoading = lazyLoading;
+    }
+
+    /**
+     * Enables or disables the binary snapshot kept next to the save file.
+     * Existing snapshot files are left alone, but are not read while this is
+     * disabled.
+     */
+    public void setFileSnapshots(boolean fileSnapshots) {
+        this.fileSnapshots = fileSnapshots;
+    }
+
+    /**
+     * Loads the robot from the snapshot next to a save file, if snapshots are
+     * enabled and the snapshot is up to date.
+     *
+     * @return Whether the robot was loaded.
+     */
+    private boolean readSnapshotFile(File path) {
+        if (!fileSnapshots || ProjectDirectory.isManifest(path)) { // The other files may have changed
+            return false;
+        }
+        resetTree(); // Properties look up components while being restored
+        RobotComponent root = RobotSnapshot.readFile(path, this);
+        if (root == null) {
+            return false;
+        }
+        setLoadedRoot(root);
+        return true;
+    }
+
+    /**
+     * Writes the snapshot next to a save file that was just written or read,
+     * if snapshots are enabled.
+     */
+    private void writeSnapshotFile(File path) {
+        if (!fileSnapshots || !path.isFile() || ProjectDirectory.isManifest(path)) {
+            return;
+        }
+        try {
+            RobotSnapshot.writeFile((RobotComponent) treeModel.getRoot(), path);
+        } catch (IOException ex) {
+            Logger.getLogger(RobotTree.class.getName()).log(Level.WARNING, "Could not write snapshot of " + path, ex);
+        }
     }
 
     public void setSaved() {
@@ -665,7 +1359,9 @@ public class RobotTree extends JPanel {
         });
         component.handleDelete();
         removeName(component.getFullName());
-        properties.setCurrentComponent((RobotComponent) component.getParent());
+        if (properties != null) {
+            properties.setCurrentComponent((RobotComponent) component.getParent());
+        }
         component.removeFromParent();
     }
 
@@ -673,6 +1369,9 @@ public class RobotTree extends JPanel {
      * Selects the component currently being edited.
      */
     public void selectEditingComponent() {
+        if (properties == null) {
+            return;
+        }
         selectRobotComponent(properties.getCurrentComponent());
     }
 
@@ -683,7 +1382,7 @@ public class RobotTree extends JPanel {
      * @param component
      */
     public void selectRobotComponent(RobotComponent component) {
-        if (component == null) {
+        if (component == null || tree == null) {
             return;
         }
         tree.setSelectionPath(new TreePath(treeModel.getPathToRoot(component)));
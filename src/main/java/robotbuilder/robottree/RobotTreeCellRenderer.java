@@ -21,7 +21,8 @@ public class RobotTreeCellRenderer extends DefaultTreeCellRenderer {
         super.getTreeCellRendererComponent(tree, value, sel, expanded, leaf, row, hasFocus);
         RobotComponent comp = (RobotComponent) value;
 
-        if (comp.isValid()) {
+        RobotTree robot = comp.getRobotTree();
+        if (!comp.isLoaded() || (robot != null ? robot.wasValid(comp) : comp.isValid())) { // Don't load components just to draw them
             setForeground(Color.black);
         } else {
             setForeground(Color.red);
@@ -0,0 +1,160 @@
+package robotbuilder.robottree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.yaml.snakeyaml.constructor.Constructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+
+import robotbuilder.data.PaletteComponent;
+import robotbuilder.data.RobotComponent;
+import robotbuilder.data.UnloadedComponent;
+import robotbuilder.data.properties.Property;
+import robotbuilder.palette.Palette;
+
+/**
+ * Builds a robot straight from the composed nodes of a save file, the
+ * counterpart of {@link RobotTreeWriter}.
+ *
+ * <p>
+ * Loading the file as plain YAML builds a {@link Property} bean for every
+ * saved property only to copy its value into the property from the palette.
+ * Instead the palette says which property each saved one is, so only its
+ * value is constructed, typed the way the bean would have typed it, and it
+ * goes straight into the single copy of the palette property. Properties
+ * that are no longer in the palette are skipped without being constructed.
+ *
+ * <p>
+ * The components are built without validating anything; their properties
+ * are updated all at once when the robot is loaded into the tree.
+ */
+class RobotTreeReader extends Constructor {
+
+    private final RobotTree robot;
+    private final boolean lazy;
+
+    /**
+     * @param robot The tree the robot is loaded into.
+     * @param lazy Whether to leave the children of the top level folders
+     * unloaded, see {@link RobotTree#setLazyLoading}.
+     */
+    RobotTreeReader(RobotTree robot, boolean lazy) {
+        this.robot = robot;
+        this.lazy = lazy;
+    }
+
+    /**
+     * Builds the robot.
+     *
+     * @param root The node of the robot document of a save file.
+     * @return The root of the robot.
+     */
+    RobotComponent read(Node root) {
+        return readComponent(root, 0);
+    }
+
+    private RobotComponent readComponent(Node node, int depth) {
+        if (lazy && depth >= 2) { // In one of the top level folders
+            return RobotComponent.unloaded(readUnloaded(node), robot);
+        }
+        Map<String, Node> details = fields(node);
+        RobotComponent component = new RobotComponent();
+        component.setRobotTree(robot);
+        component.setName(scalar(details.get("Name")));
+        component.setBaseType(scalar(details.get("Base")));
+        component.setPropertyValues(readValues(component.getBaseType(), details.get("Properties")));
+        for (Node child : items(details.get("Children"))) {
+            component.add(readComponent(child, depth + 1));
+        }
+        return component;
+    }
+
+    private UnloadedComponent readUnloaded(Node node) {
+        Map<String, Node> details = fields(node);
+        String baseType = scalar(details.get("Base"));
+        Map<String, Object> values = readValues(baseType, details.get("Properties"));
+        List<UnloadedComponent> children = new ArrayList<>();
+        for (Node child : items(details.get("Children"))) {
+            children.add(readUnloaded(child));
+        }
+        return new UnloadedComponent(scalar(details.get("Name")), baseType, values, children);
+    }
+
+    /**
+     * Reads the saved values of the properties of a component in the order
+     * they were saved. Properties that aren't in the palette have no value.
+     */
+    private Map<String, Object> readValues(String baseType, Node properties) {
+        PaletteComponent base = Palette.getInstance().getItem(baseType);
+        if (base == null) {
+            throw new YAMLException("Unknown component type " + baseType);
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Node> saved : fields(properties).entrySet()) {
+            Property template = base.getProperty(saved.getKey());
+            values.put(saved.getKey(), template == null ? null : readValue(template.getClass(), saved.getValue()));
+        }
+        return values;
+    }
+
+    /**
+     * Reads the value of a saved property, or its default if it has no value.
+     */
+    private Object readValue(Class<?> type, Node property) {
+        Map<String, Node> fields = fields(property);
+        Object value = construct(type, "value", fields.get("value"));
+        if (value == null) {
+            value = construct(type, "default", fields.get("default"));
+        }
+        return value;
+    }
+
+    /**
+     * Constructs the node of a property of a JavaBean the way SnakeYAML does
+     * when it constructs the whole bean, so lists of beans that were saved
+     * without tags come back as beans.
+     */
+    private Object construct(Class<?> type, String name, Node node) {
+        if (node == null) {
+            return null;
+        }
+        try {
+            org.yaml.snakeyaml.introspector.Property property = getPropertyUtils().getProperty(type, name);
+            node.setType(property.getType());
+            Class<?>[] arguments = property.getActualTypeArguments();
+            if (node instanceof SequenceNode && arguments != null && arguments.length > 0) {
+                ((SequenceNode) node).setListType(arguments[0]);
+            }
+        } catch (Exception ex) {
+            // Not a property of the bean, construct it as plain YAML
+        }
+        return constructObject(node);
+    }
+
+    private static Map<String, Node> fields(Node node) {
+        if (!(node instanceof MappingNode)) {
+            return Collections.emptyMap();
+        }
+        Map<String, Node> fields = new LinkedHashMap<>();
+        for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+            fields.put(scalar(tuple.getKeyNode()), tuple.getValueNode());
+        }
+        return fields;
+    }
+
+    private static List<Node> items(Node node) {
+        return node instanceof SequenceNode ? ((SequenceNode) node).getValue() : Collections.<Node>emptyList();
+    }
+
+    private static String scalar(Node node) {
+        return node instanceof ScalarNode ? ((ScalarNode) node).getValue() : null;
+    }
+}
@@ -0,0 +1,136 @@
+package robotbuilder.robottree;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.representer.Represent;
+import org.yaml.snakeyaml.representer.Representer;
+
+import robotbuilder.RobotBuilder;
+import robotbuilder.data.RobotComponent;
+
+/**
+ * Writes a robot in the save file format straight to a writer.
+ *
+ * <p>
+ * Components are represented directly instead of being copied into a tree of
+ * maps first, and the YAML is emitted into the writer instead of being built
+ * up in a String. The output is byte for byte what dumping the equivalent
+ * maps used to produce: SnakeYAML still numbers the anchors of shared values
+ * (such as the choices of a property) across the whole document.
+ */
+class RobotTreeWriter {
+
+    /**
+     * The keys of a component, in the order a {@code HashMap} holding them
+     * iterates in. Older versions of RobotBuilder saved components as
+     * {@code HashMap}s, so this is the order they appear in existing files.
+     */
+    private static final List<String> KEYS;
+
+    static {
+        Map<String, Object> component = new HashMap<>();
+        for (String key : Arrays.asList("Name", "Base", "Properties", "Children")) {
+            component.put(key, null);
+        }
+        KEYS = new ArrayList<>(component.keySet());
+    }
+
+    private RobotTreeWriter() {
+    }
+
+    /**
+     * Writes the version document followed by the robot.
+     *
+     * @param root The root component of the robot.
+     * @param out Where to write the save file to. It is not closed.
+     * @throws IOException If the writer fails.
+     */
+    static void write(RobotComponent root, Writer out) throws IOException {
+        write(root, out, component -> null);
+    }
+
+    /**
+     * Writes the version document followed by the robot, with some of its
+     * components replaced by a reference to the file they are saved in.
+     *
+     * @param root The root component of the robot.
+     * @param out Where to write the save file to. It is not closed.
+     * @param include Gives the file a component is saved in, or null to write
+     * the component itself.
+     * @throws IOException If the writer fails.
+     */
+    static void write(RobotComponent root, Writer out, Function<RobotComponent, String> include) throws IOException {
+        Yaml yaml = new Yaml(new ComponentRepresenter(include));
+        try {
+            yaml.dump("Version " + RobotBuilder.VERSION, out);
+            out.write("\n---\n");
+            yaml.dump(root, out);
+        } catch (YAMLException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Represents a component as a mapping of its name, base type, children
+     * and properties, or of the file it is saved in.
+     */
+    private static class ComponentRepresenter extends Representer {
+
+        private final Function<RobotComponent, String> include;
+
+        ComponentRepresenter(Function<RobotComponent, String> include) {
+            this.include = include;
+            this.representers.put(RobotComponent.class, new RepresentComponent());
+        }
+
+        private class RepresentComponent implements Represent {
+
+            @Override
+            public Node representData(Object data) {
+                RobotComponent component = (RobotComponent) data;
+                String file = include.apply(component);
+                if (file != null) {
+                    Map<Object, Object> reference = new LinkedHashMap<>();
+                    reference.put(ProjectDirectory.INCLUDE, file);
+                    return representMapping(Tag.MAP, reference, null);
+                }
+                Map<Object, Object> fields = new LinkedHashMap<>();
+                for (String key : KEYS) {
+                    switch (key) {
+                        case "Name":
+                            fields.put(key, component.getName());
+                            break;
+                        case "Base":
+                            fields.put(key, component.getBaseType());
+                            break;
+                        case "Properties":
+                            fields.put(key, component.getProperties());
+                            break;
+                        case "Children":
+                            fields.put(key, new ArrayList<>(component.getChildren()));
+                            break;
+                        default:
+                            break;
+                    }
+                }
+                return representMapping(Tag.MAP, fields, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package robotbuilder.robottree;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import robotbuilder.data.RobotComponent;
+import robotbuilder.data.UnloadedComponent;
+import robotbuilder.data.properties.Property;
+
+/**
+ * An immutable version of the robot, or of a component and everything in it.
+ *
+ * <p>
+ * The robot in the tree is edited in place, so it can't be handed to undo,
+ * autosave or a background save as it is. A version holds the name, the
+ * encoded property values and the children of each component as they were,
+ * and is never changed once built. A new version of the robot only builds new
+ * nodes on the path from the root to what changed and shares every untouched
+ * subtree with the version before it, so keeping a version around is a
+ * pointer copy and two versions compare unchanged parts by identity.
+ *
+ * <p>
+ * Values that can't change in place, like strings and numbers, are also kept
+ * as they are, so that checking whether they changed doesn't have to encode
+ * them again.
+ */
+final class RobotVersion {
+
+    static final int OVERHEAD = 64;
+
+    private final String name;
+    private final String baseType;
+    /**
+     * The saved component if it wasn't loaded, in which case there are no
+     * values or children.
+     */
+    private final UnloadedComponent unloaded;
+    private final Map<String, byte[]> values;
+    /**
+     * The values that can't change in place, as they are.
+     */
+    private final Map<String, Object> plain;
+    private final List<RobotVersion> children;
+    private final long size;
+
+    private RobotVersion(String name, String baseType, UnloadedComponent unloaded,
+            Map<String, byte[]> values, Map<String, Object> plain, List<RobotVersion> children) {
+        this.name = name;
+        this.baseType = baseType;
+        this.unloaded = unloaded;
+        this.values = values;
+        this.plain = plain;
+        this.children = children;
+        long total = OVERHEAD + sizeOf(values) + (plain == null ? 0 : 16 * plain.size());
+        if (children != null) {
+            for (RobotVersion child : children) {
+                total += child.size;
+            }
+        }
+        size = total;
+    }
+
+    /**
+     * @return The version of a component as it is now.
+     */
+    static RobotVersion of(RobotComponent component) {
+        if (!component.isLoaded()) {
+            return new RobotVersion(component.getName(), component.getBaseType(), component.getUnloaded(), null, null, null);
+        }
+        List<RobotVersion> children = new ArrayList<>();
+        for (RobotComponent child : component.getChildren()) {
+            children.add(of(child));
+        }
+        return loaded(component.getName(), component.getBaseType(), valuesOf(component), Collections.unmodifiableList(children));
+    }
+
+    /**
+     * @return The version of a saved component as it is once loaded.
+     */
+    static RobotVersion of(UnloadedComponent component) {
+        List<RobotVersion> children = new ArrayList<>();
+        for (UnloadedComponent child : component.getChildren()) {
+            children.add(of(child));
+        }
+        return loaded(component.getName(), component.getBaseType(), component.getValues(), Collections.unmodifiableList(children));
+    }
+
+    /**
+     * @return The version of a loaded component.
+     */
+    static RobotVersion loaded(String name, String baseType, Map<String, Object> raw, List<RobotVersion> children) {
+        Map<String, byte[]> values = new LinkedHashMap<>();
+        Map<String, Object> plain = new LinkedHashMap<>();
+        raw.forEach((key, value) -> {
+            values.put(key, encode(value));
+            if (isPlain(value)) {
+                plain.put(key, value);
+            }
+        });
+        return new RobotVersion(name, baseType, null,
+                Collections.unmodifiableMap(values), Collections.unmodifiableMap(plain), children);
+    }
+
+    /**
+     * @return The same component with other values or children.
+     */
+    RobotVersion with(String name, Map<String, byte[]> values, Map<String, Object> plain, List<RobotVersion> children) {
+        return new RobotVersion(name, baseType, null, values, plain, children);
+    }
+
+    /**
+     * @return The current values of the properties of a component.
+     */
+    static Map<String, Object> valuesOf(RobotComponent component) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<String, Property> property : component.getProperties().entrySet()) {
+            values.put(property.getKey(), property.getValue() == null ? null : property.getValue().getValue());
+        }
+        return values;
+    }
+
+    /**
+     * @return Whether a value can't change in place, so comparing it is
+     * enough to know it didn't change.
+     */
+    static boolean isPlain(Object value) {
+        return value == null || value instanceof String || value instanceof Boolean
+                || value instanceof Integer || value instanceof Long || value instanceof Double;
+    }
+
+    static long sizeOf(Map<String, byte[]> values) {
+        long size = 0;
+        if (values != null) {
+            for (Map.Entry<String, byte[]> value : values.entrySet()) {
+                size += OVERHEAD + 2 * value.getKey().length() + value.getValue().length;
+            }
+        }
+        return size;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    UnloadedComponent getUnloaded() {
+        return unloaded;
+    }
+
+    Map<String, byte[]> getValues() {
+        return values;
+    }
+
+    Map<String, Object> getPlainValues() {
+        return plain;
+    }
+
+    List<RobotVersion> getChildren() {
+        return children;
+    }
+
+    /**
+     * @return Roughly how many bytes of memory this version holds on to,
+     * counting the parts it shares with other versions.
+     */
+    long getSize() {
+        return size;
+    }
+
+    boolean isLoaded() {
+        return unloaded == null;
+    }
+
+    /**
+     * @return Whether a component is this one, possibly edited.
+     * Subsystems are told apart by name, since renaming them renames
+     * everything in them.
+     */
+    boolean matches(RobotComponent component) {
+        if (!baseType.equals(component.getBaseType())) {
+            return false;
+        }
+        if (!component.isLoaded()) {
+            return unloaded == component.getUnloaded();
+        }
+        return name.equals(component.getName()) || !component.getBase().getType().equals("Subsystem");
+    }
+
+    UnloadedComponent toUnloaded() {
+        if (unloaded != null) {
+            return unloaded;
+        }
+        Map<String, Object> decoded = new LinkedHashMap<>();
+        values.forEach((key, value) -> decoded.put(key, decode(value)));
+        List<UnloadedComponent> unloadedChildren = new ArrayList<>();
+        for (RobotVersion child : children) {
+            unloadedChildren.add(child.toUnloaded());
+        }
+        return new UnloadedComponent(name, baseType, decoded, unloadedChildren);
+    }
+
+    /**
+     * @return A component of the robot in the tree that is loaded when it is
+     * attached.
+     */
+    RobotComponent toComponent(RobotTree robot) {
+        return RobotComponent.unloaded(toUnloaded(), robot);
+    }
+
+    /**
+     * Builds the component outside of any tree, with everything in it loaded,
+     * the way a save file is written. This only reads the version, so it can
+     * run on the I/O thread while the robot is edited.
+     *
+     * @return The component.
+     */
+    RobotComponent build() {
+        RobotVersion contents = isLoaded() ? this : of(unloaded);
+        RobotComponent component = new RobotComponent();
+        component.setName(name);
+        component.setBaseType(baseType);
+        Map<String, Object> decoded = new LinkedHashMap<>();
+        contents.values.forEach((key, value) -> decoded.put(key, decode(value)));
+        component.setPropertyValues(decoded);
+        for (RobotVersion child : contents.children) {
+            component.add(child.build());
+        }
+        return component;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeUTF(name);
+        out.writeUTF(baseType);
+        out.writeBoolean(!isLoaded());
+        RobotVersion contents = isLoaded() ? this : of(unloaded);
+        writeValues(out, contents.values);
+        writeVersions(out, contents.children);
+    }
+
+    static RobotVersion read(DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        String baseType = in.readUTF();
+        boolean unloaded = in.readBoolean();
+        Map<String, byte[]> values = readValues(in);
+        Map<String, Object> plain = new LinkedHashMap<>();
+        values.forEach((key, value) -> {
+            Object decoded = decode(value);
+            if (isPlain(decoded)) {
+                plain.put(key, decoded);
+            }
+        });
+        RobotVersion version = new RobotVersion(name, baseType, null, values, Collections.unmodifiableMap(plain), readVersions(in));
+        return unloaded ? new RobotVersion(name, baseType, version.toUnloaded(), null, null, null) : version;
+    }
+
+    static void writeValues(DataOutputStream out, Map<String, byte[]> values) throws IOException {
+        out.writeInt(values.size());
+        for (Map.Entry<String, byte[]> value : values.entrySet()) {
+            out.writeUTF(value.getKey());
+            out.writeInt(value.getValue().length);
+            out.write(value.getValue());
+        }
+    }
+
+    static Map<String, byte[]> readValues(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        Map<String, byte[]> values = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String key = in.readUTF();
+            byte[] value = new byte[in.readInt()];
+            in.readFully(value);
+            values.put(key, value);
+        }
+        return Collections.unmodifiableMap(values);
+    }
+
+    static void writeVersions(DataOutputStream out, List<RobotVersion> versions) throws IOException {
+        out.writeInt(versions.size());
+        for (RobotVersion version : versions) {
+            version.write(out);
+        }
+    }
+
+    static List<RobotVersion> readVersions(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<RobotVersion> versions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            versions.add(read(in));
+        }
+        return Collections.unmodifiableList(versions);
+    }
+
+    static byte[] encode(Object value) {
+        try {
+            return RobotSnapshot.writeValue(value);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex); // Only if a property has a value of an unknown type
+        }
+    }
+
+    static Object decode(byte[] value) {
+        try {
+            return RobotSnapshot.readValue(value);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
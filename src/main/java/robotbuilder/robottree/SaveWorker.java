@@ -0,0 +1,163 @@
+package robotbuilder.robottree;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import robotbuilder.data.RobotComponent;
+
+/**
+ * Writes save files on a single background thread, so that saving never
+ * blocks the event dispatch thread.
+ *
+ * <p>
+ * The robot is handed over as a {@link RobotVersion}, which is cheap to take
+ * on the event dispatch thread and can't change while it is being written.
+ * Files are written to a temporary file next to the target and then renamed
+ * over it, so a failed or interrupted save never leaves half a file behind.
+ * Writes happen in the order they were requested.
+ */
+class SaveWorker {
+
+    private final ExecutorService io = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RobotBuilder I/O");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Whether an autosave is waiting to run. Later autosaves are dropped
+     * until it has, it will write the newest version anyway.
+     */
+    private final AtomicBoolean autosavePending = new AtomicBoolean();
+    private volatile RobotVersion autosaveVersion;
+    /**
+     * Saves robots whose target is the manifest of a project directory.
+     */
+    private final ProjectDirectory project;
+
+    SaveWorker() {
+        this(new ProjectDirectory());
+    }
+
+    SaveWorker(ProjectDirectory project) {
+        this.project = project;
+    }
+
+    /**
+     * Writes a robot to its save file.
+     *
+     * @param version The robot to save.
+     * @param target The save file, or the manifest of a project directory.
+     * @param snapshotFile Whether to also write the snapshot file next to it.
+     * @param recovery A recovery file to delete once the save file is
+     * written, or null.
+     * @param done Called on the I/O thread once the save is finished, with
+     * the reason it failed or null.
+     * @return The pending save, which fails the same way.
+     */
+    Future<Void> save(RobotVersion version, File target, boolean snapshotFile, File recovery, Consumer<Exception> done) {
+        return io.submit((Callable<Void>) () -> {
+            try {
+                RobotComponent root = version.build();
+                if (ProjectDirectory.isManifest(target)) {
+                    project.write(root, target);
+                } else {
+                    writeYaml(root, target);
+                }
+                if (snapshotFile) {
+                    RobotSnapshot.writeFile(root, target);
+                }
+                if (recovery != null) {
+                    Files.deleteIfExists(recovery.toPath());
+                }
+            } catch (IOException | RuntimeException ex) {
+                done.accept(ex);
+                throw ex;
+            }
+            done.accept(null);
+            return null;
+        });
+    }
+
+    /**
+     * Writes a robot to a recovery file, unless an autosave is already
+     * waiting, in which case that one writes this version instead.
+     *
+     * @param version The robot to save.
+     * @param recovery The recovery file.
+     */
+    void autosave(RobotVersion version, File recovery) {
+        autosaveVersion = version;
+        if (!autosavePending.compareAndSet(false, true)) {
+            return;
+        }
+        io.execute(() -> {
+            autosavePending.set(false);
+            try {
+                writeYaml(autosaveVersion.build(), recovery);
+            } catch (IOException | RuntimeException ex) {
+                Logger.getLogger(SaveWorker.class.getName()).log(Level.WARNING, "Autosave to " + recovery + " failed", ex);
+            }
+        });
+    }
+
+    /**
+     * Waits for every write requested so far to finish.
+     */
+    void finish() {
+        try {
+            io.submit(() -> {
+            }).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex); // An empty task doesn't fail
+        }
+    }
+
+    /**
+     * Writes a robot in the save file format through a temporary file.
+     */
+    static void writeYaml(RobotComponent root, File target) throws IOException {
+        Path path = target.getAbsoluteFile().toPath();
+        Path temp = Files.createTempFile(path.getParent(), target.getName(), ".tmp");
+        try {
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(temp), StandardCharsets.UTF_8))) {
+                RobotTreeWriter.write(root, out);
+            }
+            moveIntoPlace(temp, path);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Renames a finished temporary file over its target, atomically if the
+     * file system can.
+     */
+    static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
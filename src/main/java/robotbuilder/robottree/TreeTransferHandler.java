@@ -17,6 +17,7 @@ import javax.swing.JOptionPane;
 import javax.swing.JTree;
 import javax.swing.TransferHandler;
 import javax.swing.TransferHandler.TransferSupport;
+import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 
 import lombok.SneakyThrows;
@@ -205,27 +206,33 @@ class TreeTransferHandler extends TransferHandler {
             return false;
         }
 
-        if (!parentNode.getChildren().contains(newNode)
-            && robotTree.getComponentByName(newNode.getFullName()) != null) {
-            // If a component is dragged from one folder to another (e.g. between subsystems),
-            // DnD will not remove it from the tree, so we have to do it manually
-            robotTree.delete(newNode);
-            robotTree.update();
-        }
+        robotTree.beginTransaction(); // One refresh and one undo step for the whole drop
+        try {
+            if (!parentNode.getChildren().contains(newNode)
+                && robotTree.getComponentByName(newNode.getFullName()) != null) {
+                // If a component is dragged from one folder to another (e.g. between subsystems),
+                // DnD will not remove it from the tree, so we have to do it manually
+                TreeNode oldParent = newNode.getParent();
+                robotTree.delete(newNode);
+                robotTree.treeModel.nodeStructureChanged(oldParent);
+            }
 
-        robotTree.treeModel.insertNodeInto(newNode, parentNode, childIndex);
-        robotTree.treeModel.reload(parentNode); // reloads the tree without reverting to the root
-        robotTree.update();
+            robotTree.treeModel.insertNodeInto(newNode, parentNode, childIndex);
+            robotTree.treeModel.reload(parentNode); // reloads the tree without reverting to the root
+            robotTree.update();
 
-        robotTree.tree.makeVisible(path.pathByAddingChild(newNode));
+            robotTree.tree.makeVisible(path.pathByAddingChild(newNode));
 
-        robotTree.selectRobotComponent(newNode);
-        robotTree.tree.setSelectionPath(path.pathByAddingChild(newNode));
-        robotTree.properties.setCurrentComponent(newNode);
-        robotTree.properties.setEditName();
+            robotTree.selectRobotComponent(newNode);
+            robotTree.tree.setSelectionPath(path.pathByAddingChild(newNode));
+            robotTree.properties.setCurrentComponent(newNode);
+            robotTree.properties.setEditName();
 
-        robotTree.tree.scrollRectToVisible(robotTree.tree.getPathBounds(path.pathByAddingChild(newNode)));
-        robotTree.takeSnapshot();
+            robotTree.tree.scrollRectToVisible(robotTree.tree.getPathBounds(path.pathByAddingChild(newNode)));
+            robotTree.takeSnapshot();
+        } finally {
+            robotTree.commitTransaction();
+        }
         return true;
     }
 }
@@ -0,0 +1,379 @@
+package robotbuilder.robottree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import javax.swing.tree.TreeNode;
+
+import robotbuilder.data.RobotComponent;
+import robotbuilder.data.properties.ChildSelectionProperty;
+import robotbuilder.data.properties.ComponentSelectionProperty;
+import robotbuilder.data.properties.ListProperty;
+import robotbuilder.data.properties.ParentProperty;
+import robotbuilder.data.properties.Property;
+import robotbuilder.data.properties.TypeSelectionProperty;
+
+/**
+ * Remembers which components of a robot are valid, so asking whether the
+ * robot is valid doesn't check every property of every component again.
+ *
+ * <p>
+ * Checking a component pushes the values of its properties into their
+ * validators and asks them if the values are valid, like
+ * {@link RobotComponent#isValid()}. The result is kept until something it may
+ * depend on changes, then the component is checked again the next time it is
+ * asked about:
+ * <ul>
+ * <li>A property of the component changed.</li>
+ * <li>A property of another component that shares a validator with it
+ * changed, since validators like {@link robotbuilder.data.UniqueValidator}
+ * compare the values of every component.</li>
+ * <li>Components were added, removed or renamed, if the component has a
+ * property that refers to other components, like a selection of one.</li>
+ * </ul>
+ * The invalid components are kept in a set, so whether the robot is valid is
+ * whether that set is empty once the components that changed are checked.
+ * The components that changed can also be checked a few at a time, see
+ * {@link ValidationWorker}.
+ *
+ * <p>
+ * The errors of each invalid component are kept as well. The errors of a
+ * component and everything in it are put together when they are first asked
+ * for and kept until the errors of something in it change, or something is
+ * added to it, removed from it or renamed in it.
+ */
+final class ValidationCache {
+
+    private final Set<RobotComponent> checked = identitySet();
+    private final Set<RobotComponent> invalid = identitySet();
+    private final Set<RobotComponent> dirty = identitySet();
+    /**
+     * The checked components that have a property with each validator.
+     */
+    private final Map<String, Set<RobotComponent>> byValidator = new HashMap<>();
+    /**
+     * The checked components with properties that refer to other components.
+     */
+    private final Set<RobotComponent> referring = identitySet();
+    /**
+     * The errors of the properties of each invalid component.
+     */
+    private final Map<RobotComponent, String> messages = new IdentityHashMap<>();
+    private final Map<RobotComponent, Rollup> rollups = new IdentityHashMap<>();
+    /**
+     * Whether every component needs to be checked, like after loading a file.
+     */
+    private boolean stale = true;
+    /**
+     * Whether there may be components that haven't been loaded.
+     */
+    private boolean unloaded = true;
+    /**
+     * The dirty components being checked, in a list so that checking a few
+     * at a time doesn't search the set for the next one.
+     */
+    private List<RobotComponent> batch = new ArrayList<>();
+    private int next;
+    /**
+     * Counts the changes, so results can be told apart from older ones.
+     */
+    private long generation;
+
+    private static Set<RobotComponent> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Forgets everything, for a new robot.
+     */
+    void reset() {
+        checked.clear();
+        invalid.clear();
+        dirty.clear();
+        byValidator.clear();
+        referring.clear();
+        messages.clear();
+        rollups.clear();
+        stale = true;
+        unloaded = true;
+        batch = new ArrayList<>();
+        next = 0;
+        generation++;
+    }
+
+    /**
+     * A property of a component has a new value.
+     */
+    void changed(RobotComponent component, Property property) {
+        generation++;
+        dirty.add(component);
+        if (property.getValidators() != null) {
+            for (String validator : property.getValidators()) {
+                dirty.addAll(byValidator.getOrDefault(validator, Collections.emptySet()));
+            }
+        }
+    }
+
+    /**
+     * A component was added to the robot.
+     */
+    void added(RobotComponent component) {
+        generation++;
+        component.walkLoaded(self -> {
+            if (self.isLoaded()) {
+                dirty.add(self);
+            } else {
+                unloaded = true;
+            }
+        });
+        dirty.addAll(referring);
+        forgetRollups(component);
+    }
+
+    /**
+     * A component was removed from the robot.
+     *
+     * @param parent What it was in.
+     * @param component The component.
+     */
+    void removed(RobotComponent parent, RobotComponent component) {
+        generation++;
+        forgetRollups(parent);
+        component.walkLoaded(self -> {
+            for (Property property : self.getProperties().values()) {
+                changed(self, property); // Its claims were released
+            }
+            checked.remove(self);
+            invalid.remove(self);
+            referring.remove(self);
+            byValidator.values().forEach(users -> users.remove(self));
+            dirty.remove(self);
+            messages.remove(self);
+            rollups.remove(self);
+        });
+        dirty.addAll(referring);
+    }
+
+    /**
+     * A component was renamed.
+     */
+    void renamed(RobotComponent component) {
+        generation++;
+        dirty.add(component);
+        dirty.addAll(referring);
+        forgetRollups(component);
+        component.walkLoaded(rollups::remove); // The full names in it changed
+    }
+
+    /**
+     * @param component A component of the robot.
+     * @param root The root of the robot.
+     * @return Whether the component is valid.
+     */
+    boolean isValid(RobotComponent component, RobotComponent root) {
+        if (component.getRoot() != root) {
+            return component.isValid(); // Not part of the robot, so not kept
+        }
+        if (!checked.contains(component) || dirty.contains(component)) {
+            check(component);
+        }
+        return !invalid.contains(component);
+    }
+
+    /**
+     * @return Whether the component was valid when it was last checked,
+     * without checking it again. Components that were never checked are
+     * valid.
+     */
+    boolean wasValid(RobotComponent component) {
+        return !invalid.contains(component);
+    }
+
+    /**
+     * @return Whether every component was valid when it was last checked.
+     */
+    boolean wasRobotValid() {
+        return invalid.isEmpty();
+    }
+
+    /**
+     * The errors of a component and everything in it that has been loaded,
+     * as they were when they were last checked.
+     *
+     * @param component A component of the robot.
+     * @return The errors, or an empty string.
+     */
+    String getErrorMessage(RobotComponent component) {
+        return rollup(component).message;
+    }
+
+    private Rollup rollup(RobotComponent component) {
+        Rollup rollup = rollups.get(component);
+        if (rollup != null) {
+            return rollup;
+        }
+        String own = messages.get(component);
+        int count = own == null ? 0 : 1;
+        StringBuilder message = new StringBuilder(own == null ? "" : own);
+        if (component.isLoaded()) {
+            for (RobotComponent child : component.getChildren()) {
+                Rollup errors = rollup(child);
+                if (errors.count > 0) {
+                    count += errors.count;
+                    message.append(child.getFullName()).append(":\n").append(errors.message);
+                }
+            }
+        }
+        rollup = new Rollup(count, message.toString());
+        rollups.put(component, rollup);
+        return rollup;
+    }
+
+    /**
+     * Drops the errors put together for a component and everything it is in.
+     */
+    private void forgetRollups(TreeNode component) {
+        for (TreeNode node = component; node != null; node = node.getParent()) {
+            rollups.remove(node);
+        }
+    }
+
+    /**
+     * @return Whether there are components to check.
+     */
+    boolean isPending() {
+        return stale || !dirty.isEmpty();
+    }
+
+    /**
+     * @return The number of changes so far.
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Checks the components that changed.
+     *
+     * @param root The root of the robot.
+     * @param load Whether to load the components that haven't been loaded
+     * first.
+     * @return Whether every component that has been loaded is valid.
+     */
+    boolean isRobotValid(RobotComponent root, boolean load) {
+        if (load && unloaded) {
+            root.walk(self -> {
+            }); // Loading adds the components
+            unloaded = false;
+        }
+        checkSome(root, Long.MAX_VALUE, component -> {
+        });
+        return invalid.isEmpty();
+    }
+
+    /**
+     * Checks the components that changed until there are none left or the
+     * time is up. Checking can load components, which adds more to check.
+     *
+     * @param root The root of the robot.
+     * @param budget How long to check for, in nanoseconds.
+     * @param flipped Told about each component that became valid or invalid.
+     * @return Whether every component that changed has been checked.
+     */
+    boolean checkSome(RobotComponent root, long budget, Consumer<RobotComponent> flipped) {
+        long start = System.nanoTime();
+        if (stale) {
+            stale = false;
+            root.walkLoaded(self -> {
+                if (self.isLoaded()) {
+                    dirty.add(self);
+                }
+            });
+        }
+        while (!dirty.isEmpty()) {
+            if (next == batch.size()) {
+                batch = new ArrayList<>(dirty);
+                next = 0;
+            }
+            RobotComponent component = batch.get(next++);
+            if (dirty.contains(component)) {
+                if (component.isLoaded() && component.getRoot() == root) {
+                    if (check(component)) {
+                        flipped.accept(component);
+                    }
+                } else {
+                    dirty.remove(component);
+                }
+            }
+            if (System.nanoTime() - start >= budget) {
+                return dirty.isEmpty();
+            }
+        }
+        batch.clear(); // Don't hold on to removed components
+        next = 0;
+        return true;
+    }
+
+    /**
+     * @return Whether the component became valid or invalid.
+     */
+    private boolean check(RobotComponent component) {
+        dirty.remove(component);
+        boolean wasValid = !invalid.contains(component);
+        boolean valid = component.isValid();
+        String message = valid ? null : component.getOwnErrorMessage();
+        if (!Objects.equals(message, messages.get(component))) {
+            if (message == null) {
+                messages.remove(component);
+            } else {
+                messages.put(component, message);
+            }
+            forgetRollups(component);
+        }
+        checked.add(component);
+        if (valid) {
+            invalid.remove(component);
+        } else {
+            invalid.add(component);
+        }
+        for (Property property : component.getProperties().values()) {
+            if (property.getValidators() != null) {
+                for (String validator : property.getValidators()) {
+                    byValidator.computeIfAbsent(validator, name -> identitySet()).add(component);
+                }
+            }
+            if (refersToComponents(property)) {
+                referring.add(component);
+            }
+        }
+        return valid != wasValid;
+    }
+
+    /**
+     * The errors of a component and everything in it, and how many of those
+     * components are invalid.
+     */
+    private static final class Rollup {
+
+        final int count;
+        final String message;
+
+        Rollup(int count, String message) {
+            this.count = count;
+            this.message = message;
+        }
+    }
+
+    private static boolean refersToComponents(Property property) {
+        return property instanceof ComponentSelectionProperty || property instanceof TypeSelectionProperty
+                || property instanceof ChildSelectionProperty || property instanceof ParentProperty
+                || property instanceof ListProperty;
+    }
+}
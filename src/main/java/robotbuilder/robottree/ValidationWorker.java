@@ -0,0 +1,77 @@
+package robotbuilder.robottree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.SwingUtilities;
+
+import robotbuilder.data.RobotComponent;
+
+/**
+ * Checks the components of the robot that changed in the background, so the
+ * tree and the properties can show what is invalid without every edit
+ * waiting for the whole robot to be checked.
+ *
+ * <p>
+ * Validators and selection properties read the robot as it is being edited,
+ * so the checking happens on the event dispatch thread, a slice at a time.
+ * Each slice is queued behind the events that are already waiting and stops
+ * after half a frame at 60 frames per second, so typing and painting go on
+ * while a big robot is checked. The components that became valid or invalid
+ * in a slice are then published to the robot, see
+ * {@link RobotTree#publishValidation}. A slice that was queued for a robot
+ * that has since been replaced is thrown away.
+ *
+ * <p>
+ * Only edits made on the event dispatch thread start a slice. Anything else,
+ * like exporting or tests, asks {@link RobotTree#isRobotValid()}, which checks
+ * whatever is left right away.
+ */
+final class ValidationWorker {
+
+    static final long SLICE = TimeUnit.MILLISECONDS.toNanos(8);
+
+    private final RobotTree robot;
+    private final ValidationCache cache;
+    private boolean scheduled;
+
+    ValidationWorker(RobotTree robot, ValidationCache cache) {
+        this.robot = robot;
+        this.cache = cache;
+    }
+
+    /**
+     * Queues a slice, unless one is already queued.
+     */
+    void schedule() {
+        if (scheduled || !SwingUtilities.isEventDispatchThread()) {
+            return;
+        }
+        scheduled = true;
+        RobotComponent root = robot.getRoot();
+        SwingUtilities.invokeLater(() -> run(root));
+    }
+
+    private void run(RobotComponent root) {
+        scheduled = false;
+        if (root != robot.getRoot()) {
+            schedule(); // The robot was replaced, start over with the new one
+            return;
+        }
+        if (robot.isInTransaction()) {
+            return; // Committing the transaction queues another slice
+        }
+        if (!cache.isPending()) {
+            robot.publishValidation(new ArrayList<>(), true); // Checked by a snapshot
+            return;
+        }
+        long generation = cache.getGeneration();
+        List<RobotComponent> flipped = new ArrayList<>();
+        boolean done = cache.checkSome(root, SLICE, flipped::add);
+        robot.publishValidation(flipped, done && generation == cache.getGeneration());
+        if (!done) {
+            schedule();
+        }
+    }
+}
@@ -2,12 +2,12 @@
 #set($params = $command.getProperty("Parameters").getValue())
 #set($len = $params.size() - 2)
 #set($last = $len + 1)
-#macro( klass $cmd )#if( "#type($cmd)" == "" )Command#else#type($cmd)#end#end
+#macro( command_klass $cmd )#if( "#type($cmd)" == "" )Command#else#type($cmd)#end#end
 
 #if( $params.size() > 0 )
-#class($command.name)::#class($command.name)(#if( $len >= 0 )#foreach($i in [0..$len])#param_declaration_cpp($params.get($i)), #end#end#if( $last >= 0 )#param_declaration_cpp($params.get($last))#end): #klass($command)() {
+#class($command.name)::#class($command.name)(#if( $len >= 0 )#foreach($i in [0..$len])#param_declaration_cpp($params.get($i)), #end#end#if( $last >= 0 )#param_declaration_cpp($params.get($last))#end): #command_klass($command)() {
 #else
-#class($command.name)::#class($command.name)(): #klass($command)() {
+#class($command.name)::#class($command.name)(): #command_klass($command)() {
 #end
     #foreach($param in $params)
 m_$param.getName() = $param.getName();
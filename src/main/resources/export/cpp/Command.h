@@ -1,5 +1,5 @@
 #set($command = $helper.getByName($command-name, $robot))
-#macro( klass $cmd )#if( "#type($cmd)" == "" )Command#else#type($cmd)#end#end
+#macro( command_klass $cmd )#if( "#type($cmd)" == "" )Command#else#type($cmd)#end#end
 #header()
 
 #ifndef #constant($command.name)_H
@@ -14,7 +14,7 @@
  *
  * @author ExampleAuthor
  */
-class #class($command.name): public #klass($command) {
+class #class($command.name): public #command_klass($command) {
 public:
 #@autogenerated_code("constructor", "    ")
 #parse("${exporter-path}Command-constructor-header.h")
@@ -1,4 +1,4 @@
-##${Collections.reverse($components)}
+${Collections.reverse($components)}## Joysticks before their buttons
 #foreach( $component in $components )
 #if ($helper.exportsTo("OI", $component)
      && ("#constructor($component)" != "" || "#extra($component)" != ""))
@@ -23,3 +23,4 @@
 #end
 #end
 #end
+${Collections.reverse($components)}## Back to the order of the robot
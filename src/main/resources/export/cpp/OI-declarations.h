@@ -1,3 +1,4 @@
+${Collections.reverse($components)}## Joysticks before their buttons
 #foreach ($component in $components)
 #if ($helper.exportsTo("OI", $component)
      && "#type($component)" != "" )
@@ -5,3 +6,4 @@
 
 #end
 #end
+${Collections.reverse($components)}## Back to the order of the robot
@@ -1,4 +1,4 @@
-${Collections.reverse($components)}
+
 #foreach( $component in $components )
 #if ($helper.exportsTo("OI", $component)
      && "#function($component)" != "")
@@ -1,5 +1,5 @@
 #set($subsystem = $helper.getByName($subsystem-name, $robot))
-#macro( klass $cmd )#if( "#type($cmd)" == "" )Subsystem#else#type($cmd)#end#end
+#macro( subsystem_klass $cmd )#if( "#type($cmd)" == "" )Subsystem#else#type($cmd)#end#end
 #header()
 
 ${helper.getImports($subsystem, "RobotMap")}
@@ -14,7 +14,7 @@ ${helper.getImports($subsystem, "RobotMap")}
 #parse("${exporter-path}Subsystem-constants.cpp")
 #end
 
-#class($subsystem.name)::#class($subsystem.name)() : #klass($subsystem)("#class($subsystem.name)") {
+#class($subsystem.name)::#class($subsystem.name)() : #subsystem_klass($subsystem)("#class($subsystem.name)") {
 #@autogenerated_code("declarations", "    ")
 #parse("${exporter-path}Subsystem-declarations.cpp")
 #end
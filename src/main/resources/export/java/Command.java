@@ -3,14 +3,14 @@
 package ${package}.commands;
 #set($command = $helper.getByName($command-name, $robot))
 #set($params = $command.getProperty("Parameters").getValue())
-#macro( klass $cmd )#if( "#type($cmd)" == "" )Command#else#type($cmd)#end#end
+#macro( command_klass $cmd )#if( "#type($cmd)" == "" )Command#else#type($cmd)#end#end
 import edu.wpi.first.wpilibj.command.Command;
 import ${package}.Robot;
 
 /**
  *
  */
-public class #class($command.name) extends #klass($command) {
+public class #class($command.name) extends #command_klass($command) {
 
 #@autogenerated_code("variable_declarations", "    ")
 #parse("${exporter-path}Command-variable-declarations.java")
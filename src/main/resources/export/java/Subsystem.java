@@ -2,7 +2,7 @@
 
 package ${package}.subsystems;
 #set($subsystem = $helper.getByName($subsystem-name, $robot))
-#macro( klass $cmd )#if( "#type($cmd)" == "" )Subsystem#else#type($cmd)#end#end
+#macro( subsystem_klass $cmd )#if( "#type($cmd)" == "" )Subsystem#else#type($cmd)#end#end
 
 import ${package}.RobotMap;
 import ${package}.commands.*;
@@ -13,7 +13,7 @@ import edu.wpi.first.wpilibj.command.Subsystem;
 /**
  *
  */
-public class #class($subsystem.name) extends #klass($subsystem) {
+public class #class($subsystem.name) extends #subsystem_klass($subsystem) {
 
 #@autogenerated_code("constants", "    ")
 #parse("${exporter-path}Subsystem-constants.java")
@@ -0,0 +1,55 @@
+package robotbuilder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.*;
+
+/**
+ * Tests for {@link HistoryJournal}, with windows small enough that states
+ * are read across them.
+ */
+public class HistoryJournalTest {
+
+    private static byte[] state(int length, int seed) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (seed + i);
+        }
+        return bytes;
+    }
+
+    @Test
+    public void statesAreReadAcrossWindows() throws Exception {
+        HistoryJournal journal = new HistoryJournal(16);
+        byte[][] states = {state(5, 1), state(20, 2), state(16, 3), state(3, 4), state(40, 5)};
+        long[] offsets = new long[states.length];
+        for (int i = 0; i < states.length; i++) {
+            offsets[i] = journal.append(states[i]);
+        }
+        for (int i = states.length - 1; i >= 0; i--) {
+            assertArrayEquals("State " + i, states[i], journal.read(offsets[i], states[i].length));
+        }
+        for (int i = 0; i < states.length; i++) {
+            assertArrayEquals("State " + i, states[i], journal.read(offsets[i], states[i].length));
+        }
+    }
+
+    @Test
+    public void statesMoveToTheStart() throws Exception {
+        HistoryJournal journal = new HistoryJournal(16);
+        byte[] dropped = state(24, 1);
+        byte[] kept = state(30, 2);
+        journal.append(dropped);
+        long offset = journal.append(kept);
+        assertArrayEquals(kept, journal.read(offset, kept.length)); // Mapped before it moves
+
+        assertEquals(0, journal.move(offset, kept.length, 0));
+        journal.truncate(kept.length);
+        assertEquals(kept.length, journal.getSize());
+        assertArrayEquals(kept, journal.read(0, kept.length));
+
+        offset = journal.append(dropped);
+        assertEquals(kept.length, offset);
+        assertArrayEquals(dropped, journal.read(offset, dropped.length));
+    }
+}
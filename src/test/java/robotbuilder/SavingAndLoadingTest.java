@@ -8,7 +8,16 @@ import robotbuilder.robottree.RobotTree;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import org.yaml.snakeyaml.Yaml;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -77,4 +86,46 @@ public class SavingAndLoadingTest {
         assertEquals("Loaded file should be identical to the saved file.",
                 before, after);
     }
+
+    /**
+     * The way robots used to be encoded, by copying them into maps and
+     * dumping those.
+     */
+    private static String encodeAsMaps(RobotComponent root) {
+        Object out = root.visit(new robotbuilder.data.RobotVisitor() {
+            @Override
+            public Object visit(RobotComponent self, Object... extra) {
+                Map<String, Object> me = new HashMap<>();
+                me.put("Name", self.getName());
+                me.put("Base", self.getBaseType());
+                me.put("Properties", self.getProperties());
+                List<Object> children = new ArrayList<>();
+                for (RobotComponent child : self.getChildren()) {
+                    children.add(child.visit(this));
+                }
+                me.put("Children", children);
+                return me;
+            }
+        }, (Object[]) null);
+        Yaml yaml = new Yaml();
+        return yaml.dump("Version " + RobotBuilder.VERSION) + "\n---\n" + yaml.dump(out);
+    }
+
+    @Test
+    public void saveIsCompatibleWithTheOldFormat() throws IOException {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.isRobotValid();
+        String expected = encodeAsMaps(tree.getRoot());
+        assertEquals("Encoding should not change the file format.", expected, tree.encode());
+
+        File tmpFile = File.createTempFile("robotbuilder-test-save", "-" + Long.toString(System.nanoTime()) + ".yml");
+        tree.save(tmpFile.getAbsolutePath());
+        assertArrayEquals("Saving should not change the file format.",
+                expected.getBytes(StandardCharsets.UTF_8), Files.readAllBytes(tmpFile.toPath()));
+
+        RobotComponent before = tree.getRoot();
+        tree.load(tmpFile);
+        assertEquals("Loaded file should be identical to the saved file.",
+                before, tree.getRoot());
+    }
 }
@@ -2,6 +2,7 @@
 package robotbuilder;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import org.junit.*;
 
 /**
@@ -70,4 +71,61 @@ public class SimpleHistoryTest {
         assertEquals("Conflict in the future. Value ", (Integer) 65535, history.redo());
         System.out.println("Current state: " + history.getCurrentState());
     }
+
+    @Test
+    public void budget() {
+        SimpleHistory<Integer> limited = new SimpleHistory<>(state -> state, 10);
+        limited.addState(4);
+        limited.addState(3);
+        limited.addState(2);
+        assertEquals("Nothing should be forgotten yet. ", 2, limited.getUndoSize());
+        limited.addState(5);
+        assertEquals("The oldest state should be forgotten. ", 2, limited.getUndoSize());
+        assertEquals(10, limited.getSize());
+        limited.setBudget(5);
+        assertEquals(0, limited.getUndoSize());
+        assertEquals((Integer) 5, limited.getCurrentState());
+    }
+
+    private static final SimpleHistory.Codec<Integer> INTEGERS = new SimpleHistory.Codec<Integer>() {
+        @Override
+        public byte[] encode(Integer state) {
+            return java.nio.ByteBuffer.allocate(4).putInt(state).array();
+        }
+
+        @Override
+        public Integer decode(byte[] bytes) {
+            return java.nio.ByteBuffer.wrap(bytes).getInt();
+        }
+    };
+
+    @Test
+    public void tiers() {
+        history.setTiers(INTEGERS, 2, 0);
+        for (Integer i = 0; i <= 20; i++) {
+            history.addState(i);
+        }
+        assertTrue("Old states should be on disk. ", history.getDiskSize() > 0);
+        for (Integer i = 19; i >= 0; i--) {
+            assertEquals("Undo through the tiers failed. ", i, history.undo());
+        }
+        assertEquals("Nothing should be left on disk. ", 0, history.getDiskSize());
+        assertEquals((Integer) 1, history.redo());
+    }
+
+    @Test
+    public void journalIsCompacted() {
+        SimpleHistory<Integer> limited = new SimpleHistory<>(state -> 100, 1000);
+        limited.setTiers(INTEGERS, 2, 0);
+        for (Integer i = 0; i <= 2000; i++) {
+            limited.addState(i);
+        }
+        long kept = limited.getUndoSize();
+        assertTrue("Old states should be on disk. ", limited.getDiskSize() > 0);
+        assertTrue("Forgotten states should be dropped from disk. ", limited.getDiskSize() < 2 * 16 * kept);
+        for (Integer i = 1999; i > 1999 - kept; i--) {
+            assertEquals("Undo after compacting failed. ", i, limited.undo());
+        }
+        assertEquals("Nothing should be left on disk. ", 0, limited.getDiskSize());
+    }
 }
@@ -0,0 +1,42 @@
+package robotbuilder.data;
+
+import org.junit.*;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ClaimStore}.
+ */
+public class ClaimStoreTest {
+
+    private static Map<String, Object> port(Object channel) {
+        return Collections.singletonMap("Channel (PWM)", channel);
+    }
+
+    @Test
+    public void valuesCanOnlyBeClaimedOnce() {
+        ClaimStore<String> claims = new ClaimStore<>();
+        assertTrue(claims.claim(port("0"), "Victor 1"));
+        assertFalse(claims.claim(port("0"), "Victor 2"));
+        assertFalse("A failed claim leaves no claim", claims.hasClaim("Victor 2"));
+        assertEquals("Victor 1", claims.getClaimant(port("0")));
+    }
+
+    @Test
+    public void claimingAgainReleasesTheOldValues() {
+        ClaimStore<String> claims = new ClaimStore<>();
+        claims.claim(port("0"), "Victor 1");
+        claims.claim(port("1"), "Victor 1");
+        assertFalse(claims.isClaimed(port("0")));
+        assertTrue(claims.claim(port("0"), "Victor 2"));
+        assertEquals(2, claims.size());
+
+        claims.release("Victor 1");
+        assertFalse(claims.hasClaim("Victor 1"));
+        assertFalse(claims.isClaimed(port("1")));
+        assertEquals(1, claims.size());
+    }
+}
@@ -0,0 +1,56 @@
+package robotbuilder.data;
+
+import org.junit.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PortAllocator}.
+ */
+public class PortAllocatorTest {
+
+    private static final Map<String, String[]> CHOICES = new HashMap<>();
+
+    static {
+        CHOICES.put("Channel", new String[]{"0", "1"});
+        CHOICES.put("Module", new String[]{"0", "1", "2"});
+        CHOICES.put("Bus", new String[]{"A", "B"});
+    }
+
+    @Test
+    public void everyCombinationOfThreeFieldsIsGivenOnce() {
+        ClaimStore<Integer> claims = new ClaimStore<>();
+        PortAllocator allocator = new PortAllocator(Arrays.asList("Channel", "Module", "Bus"), claims);
+        for (int i = 0; i < 12; i++) {
+            Map<String, String> free = allocator.next(CHOICES);
+            assertNotNull("Combination " + i + " should be free", free);
+            assertTrue(claims.claim(new HashMap<>(free), i));
+            allocator.claimed(free);
+        }
+        assertNull("Every combination is claimed", allocator.next(CHOICES));
+
+        Map<String, Object> released = claims.release(7);
+        allocator.released(released);
+        assertEquals(released, allocator.next(CHOICES));
+    }
+
+    @Test
+    public void existingClaimsAreSkipped() {
+        ClaimStore<Integer> claims = new ClaimStore<>();
+        Map<String, Object> first = new HashMap<>();
+        first.put("Channel", "0");
+        first.put("Module", "0");
+        first.put("Bus", "A");
+        claims.claim(first, 0);
+        PortAllocator allocator = new PortAllocator(Arrays.asList("Channel", "Module", "Bus"), claims);
+
+        Map<String, String> free = allocator.next(CHOICES);
+        assertEquals("1", free.get("Channel"));
+        assertEquals("0", free.get("Module"));
+        assertEquals("A", free.get("Bus"));
+    }
+}
@@ -0,0 +1,75 @@
+package robotbuilder.data;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.data.properties.Property;
+import robotbuilder.extensions.Extensions;
+import robotbuilder.robottree.RobotTree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Times claiming, checking and releasing ports with a {@link UniqueValidator}
+ * as the number of claimed ports grows. The time per claim should stay flat.
+ */
+public class UniqueValidatorBenchmark {
+
+    private static final int[] SIZES = {250, 500, 1000, 2000, 4000};
+    private static final int RUNS = 5;
+    private static final String PROPERTY = "Output Channel (PWM)";
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    @Test
+    @Ignore("Benchmark, run manually")
+    public void timeClaims() {
+        RobotTree tree = TestUtils.getNewRobotTree();
+        for (int size : SIZES) {
+            // Components outside of the tree, so they don't claim ports of the real validators
+            List<RobotComponent> components = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                RobotComponent component = new RobotComponent();
+                component.setRobotTree(tree);
+                component.setName("Controller " + i);
+                component.setBaseType("Speed Controller");
+                component.setPropertyValues(Collections.<String, Object>singletonMap(PROPERTY, Integer.toString(i)));
+                components.add(component);
+            }
+            UniqueValidator validator = new UniqueValidator("Benchmark", new LinkedList<>(Arrays.asList("Channel (PWM)")));
+
+            double claim = best(() -> components.forEach(c -> validator.update(c, PROPERTY, c.getProperty(PROPERTY).getValue())));
+            double check = best(() -> components.forEach(c -> {
+                Property property = c.getProperty(PROPERTY);
+                if (!validator.isValid(c, property)) {
+                    validator.getError(c, property);
+                }
+            }));
+            double release = best(() -> {
+                components.forEach(c -> validator.delete(c, PROPERTY));
+                components.forEach(c -> validator.update(c, PROPERTY, c.getProperty(PROPERTY).getValue()));
+            });
+            System.out.printf("%5d ports: claim %6.0f ns, check %6.0f ns, release and claim %6.0f ns per port%n",
+                    size, claim * 1e6 / size, check * 1e6 / size, release * 1e6 / size);
+        }
+    }
+
+    private static double best(Runnable action) {
+        action.run(); // warm up the JIT
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            action.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+}
@@ -5,9 +5,15 @@ import org.junit.*;
 import robotbuilder.MainFrame;
 import robotbuilder.TestUtils;
 import robotbuilder.extensions.Extensions;
+import robotbuilder.palette.Palette;
 import robotbuilder.robottree.RobotTree;
 
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -128,4 +134,55 @@ public class UniqueValidatorTest {
         assertTrue("Victor 2 Output Channel (PWM) is not valid.",
                 victor2.getProperty("Output Channel (PWM)").isValid());
     }
+
+    /**
+     * Adds a solenoid the way the tree does, with the next free name.
+     */
+    private static RobotComponent addSolenoid(RobotTree tree, RobotComponent subsystem) {
+        PaletteComponent base = Palette.getInstance().getItem("Solenoid");
+        RobotComponent solenoid = new RobotComponent(tree.getDefaultComponentName(base, subsystem.getSubsystem()), base, tree);
+        subsystem.addChild(solenoid);
+        return solenoid;
+    }
+
+    private static String portOf(RobotComponent solenoid) {
+        return solenoid.getProperty("Output PCM (Solenoid)").getValue()
+                + "/" + solenoid.getProperty("Output Channel (Solenoid)").getValue();
+    }
+
+    /**
+     * Check that new solenoids are given free channel and PCM pairs, moving to
+     * the next PCM once all the channels of one are in use.
+     */
+    @Test
+    public void testFreePortsWithTwoFields() {
+        RobotTree tree = TestUtils.getNewRobotTree();
+        RobotComponent robot = tree.getRoot();
+        RobotComponent subsystems = (RobotComponent) robot.getChildren().elementAt(0);
+        RobotComponent subsystem = new RobotComponent("Subsystem", "Subsystem", tree);
+        subsystems.add(subsystem);
+
+        Set<String> ports = new HashSet<>();
+        for (int i = 1; i <= 20; i++) {
+            RobotComponent solenoid = addSolenoid(tree, subsystem);
+            assertEquals("Solenoid " + i, solenoid.getName());
+            assertTrue("Solenoid " + i + " is not valid.",
+                    solenoid.getProperty("Output Channel (Solenoid)").isValid());
+            String port = portOf(solenoid);
+            assertTrue("Solenoid " + i + " was given " + port + " again.", ports.add(port));
+        }
+        assertTrue(ports.contains("2/3"));
+        assertTrue(tree.isRobotValid());
+
+        // A port that is released can be given out again
+        RobotComponent released = tree.getComponentByName("Subsystem Solenoid 6");
+        assertEquals("0/5", portOf(released));
+        tree.delete(released);
+        assertNull(tree.getComponentByName("Subsystem Solenoid 6"));
+        RobotComponent solenoid = addSolenoid(tree, subsystem);
+        assertEquals("The name is free again", "Solenoid 6", solenoid.getName());
+        assertEquals("0/5", portOf(solenoid));
+        assertEquals("2/4", portOf(addSolenoid(tree, subsystem)));
+        assertTrue(tree.isRobotValid());
+    }
 }
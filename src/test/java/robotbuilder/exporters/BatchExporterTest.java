@@ -0,0 +1,86 @@
+package robotbuilder.exporters;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.extensions.Extensions;
+import robotbuilder.robottree.RobotTree;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the batch exporter the way a build server would, in its own JVM without
+ * a screen.
+ */
+public class BatchExporterTest {
+
+    private static final File WORKSPACE = new File("test-resources/BatchExport/");
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    @Before
+    public void setUp() {
+        TestUtils.delete(WORKSPACE);
+        WORKSPACE.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        TestUtils.delete(WORKSPACE);
+    }
+
+    /**
+     * Runs the exporter on the command line, with the classpath of the tests.
+     *
+     * @return The exit code.
+     */
+    private static int runHeadless(File output, String... args) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<String> command = new ArrayList<>(Arrays.asList(java, "-Djava.awt.headless=true",
+                "-cp", System.getProperty("java.class.path"), BatchExporter.class.getName()));
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(output)
+                .start();
+        return process.waitFor();
+    }
+
+    @Test
+    public void exportsWithoutAScreen() throws Exception {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.getRoot().setName("BatchExportProject");
+        tree.getRoot().getProperty("Eclipse Workspace").setValueAndUpdate(WORKSPACE.getAbsolutePath());
+        tree.getRoot().getProperty("Java Package").setValueAndUpdate("robotcode");
+        assertTrue("Robot tree is not valid.", tree.isRobotValid());
+        File saveFile = new File(WORKSPACE, "robot.yaml");
+        tree.save(saveFile.getAbsolutePath());
+
+        File output = new File(WORKSPACE, "output.txt");
+        int exitCode = runHeadless(output, "--exporters", "java", saveFile.getAbsolutePath());
+        String printed = new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8);
+        assertEquals(printed, BatchExporter.EXIT_SUCCESS, exitCode);
+        assertTrue(printed, new File(WORKSPACE, "BatchExportProject/src/org/usfirst/frc0/BatchExportProject/Robot.java").exists());
+    }
+
+    @Test
+    public void unknownExportersAreReported() throws Exception {
+        File output = new File(WORKSPACE, "output.txt");
+        int exitCode = runHeadless(output, "--exporters", "cobol", new File(WORKSPACE, "robot.yaml").getAbsolutePath());
+        String printed = new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8);
+        assertEquals(printed, BatchExporter.EXIT_USAGE, exitCode);
+        assertTrue(printed, printed.contains("No exporter named 'cobol'"));
+    }
+}
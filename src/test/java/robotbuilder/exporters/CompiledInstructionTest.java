@@ -0,0 +1,166 @@
+package robotbuilder.exporters;
+
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.runtime.RuntimeInstance;
+import org.junit.*;
+import org.yaml.snakeyaml.Yaml;
+import robotbuilder.Utils;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CompiledInstruction}. Compiled instructions must render
+ * exactly what Velocity renders.
+ */
+public class CompiledInstructionTest {
+
+    private static final Set<String> ALL_MACROS = CompiledInstruction.MACRO_DEFINITIONS.keySet();
+    private static final List<String> SAMPLE_VALUES = Arrays.asList("Left Drive Motor", "x", "Arm 2", "already_Constant");
+
+    private static String read(String resource) throws IOException {
+        StringWriter out = new StringWriter();
+        try (Reader in = new InputStreamReader(Utils.getResourceAsStream(resource))) {
+            char[] buffer = new char[8192];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return out.toString();
+    }
+
+    private static String velocity(String macros, String instruction, VelocityContext context) {
+        RuntimeInstance ve = new RuntimeInstance();
+        ve.init(Utils.getVelocityProperties());
+        ve.evaluate(context, new StringWriter(), "macros", macros);
+        StringWriter out = new StringWriter();
+        ve.evaluate(context, out, "instruction", instruction);
+        return out.toString();
+    }
+
+    private static String macros() {
+        StringBuilder macros = new StringBuilder();
+        for (String definition : CompiledInstruction.MACRO_DEFINITIONS.values()) {
+            macros.append(definition).append("\n");
+        }
+        return macros.toString();
+    }
+
+    private static void assertSameAsVelocity(String instruction, Object... keysAndValues) {
+        CompiledInstruction compiled = CompiledInstruction.compile(instruction, ALL_MACROS);
+        assertNotNull("Should compile: " + instruction, compiled);
+        VelocityContext context = new VelocityContext();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            context.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        assertEquals(velocity(macros(), instruction, context), compiled.render(context));
+    }
+
+    @Test
+    public void substitutesVariables() {
+        assertSameAsVelocity("#variable($Name) = new ${ClassName}(${Input_Channel_Analog});",
+                "Name", "Left Drive Motor", "ClassName", "AnalogInput", "Input_Channel_Analog", "3");
+        assertSameAsVelocity("LiveWindow.addSensor(\"$Subsystem\", \"$Short_Name\", #variable( $Name ));",
+                "Subsystem", "Drive Train", "Short_Name", "Gyro", "Name", "Drive Train Gyro");
+        assertSameAsVelocity("public static #class($Short_Name) #variable($Short_Name);\r\n#constant($Short_Name)",
+                "Short_Name", "Drive Train");
+        assertSameAsVelocity("$file-separator$robot-name", "file-separator", "/", "robot-name", "Robot");
+        assertSameAsVelocity("cost: $5, $ and $Count", "Count", 5);
+    }
+
+    @Test
+    public void leavesControlFlowToVelocity() {
+        assertNull(CompiledInstruction.compile("#if($x)a#end", ALL_MACROS));
+        assertNull(CompiledInstruction.compile("#command_instantiation($Command $Parameters)", ALL_MACROS));
+        assertNull(CompiledInstruction.compile("#include \"a.h\"", ALL_MACROS));
+        assertNull(CompiledInstruction.compile("$x.getValue()", ALL_MACROS));
+        assertNull(CompiledInstruction.compile("${x.value}", ALL_MACROS));
+        assertNull(CompiledInstruction.compile("$!x", ALL_MACROS));
+        assertNull(CompiledInstruction.compile("\\$x", ALL_MACROS));
+        assertNull(CompiledInstruction.compile("a ## comment", ALL_MACROS));
+        assertNull(CompiledInstruction.compile("a\r\n  #variable($x)\r\nb", ALL_MACROS));
+        assertNull("Macro not defined by the exporter",
+                CompiledInstruction.compile("#variable($x)", Collections.emptySet()));
+    }
+
+    @Test
+    public void fallsBackWhenVelocityIsNeeded() {
+        CompiledInstruction compiled = CompiledInstruction.compile("#variable($Name) = $Value;", ALL_MACROS);
+        VelocityContext context = new VelocityContext();
+        context.put("Name", "Motor");
+        assertNull("Missing variable", compiled.render(context));
+        context.put("Value", 1);
+        assertEquals("motor = 1;", compiled.render(context));
+        context.put("Name", 1);
+        assertNull("Not a string", compiled.render(context));
+        context.put("Name", "");
+        assertNull("Empty name", compiled.render(context));
+    }
+
+    @Test
+    public void findsMacroDefinitions() throws IOException {
+        assertEquals(ALL_MACROS, CompiledInstruction.findMacros(read("/export/java/macros.vm")));
+        assertEquals(ALL_MACROS, CompiledInstruction.findMacros(read("/export/cpp/macros.vm")));
+        assertTrue(CompiledInstruction.findMacros(read("/export/wiring/macros.vm")).isEmpty());
+    }
+
+    @Test
+    public void javaInstructionsMatchVelocity() throws IOException {
+        checkExportDescription("/export/java/");
+    }
+
+    @Test
+    public void cppInstructionsMatchVelocity() throws IOException {
+        checkExportDescription("/export/cpp/");
+    }
+
+    /**
+     * Renders every instruction of an exporter that compiles both ways with
+     * a few different values and checks that they agree.
+     */
+    @SuppressWarnings("unchecked")
+    private void checkExportDescription(String path) throws IOException {
+        String macros = read(path + "macros.vm");
+        Set<String> compilable = CompiledInstruction.findMacros(macros);
+        Map<String, Object> description = (Map<String, Object>) new Yaml().load(read(path + "ExportDescription.yaml"));
+        List<String> instructions = new ArrayList<>();
+        for (String section : Arrays.asList("Defaults", "Instructions")) {
+            for (Map<String, Object> component : ((Map<String, Map<String, Object>>) description.get(section)).values()) {
+                for (Map.Entry<String, Object> instruction : component.entrySet()) {
+                    if (!instruction.getKey().equals("Defaults") && instruction.getValue() instanceof String) {
+                        instructions.add(((String) instruction.getValue()).replaceAll("\n", "\r\n"));
+                    }
+                }
+            }
+        }
+
+        Set<String> compiledAny = new HashSet<>();
+        for (String instruction : instructions) {
+            CompiledInstruction compiled = CompiledInstruction.compile(instruction, compilable);
+            if (compiled == null) {
+                continue;
+            }
+            compiledAny.add(instruction);
+            for (String value : SAMPLE_VALUES) {
+                VelocityContext context = new VelocityContext();
+                for (String reference : compiled.getReferences()) {
+                    context.put(reference, value + " " + reference);
+                }
+                assertEquals(path + ": " + instruction,
+                        velocity(macros, instruction, context), compiled.render(context));
+            }
+        }
+        assertFalse("No instruction compiled", compiledAny.isEmpty());
+    }
+}
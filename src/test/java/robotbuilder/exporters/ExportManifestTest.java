@@ -0,0 +1,69 @@
+package robotbuilder.exporters;
+
+import org.junit.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ExportManifest}.
+ */
+public class ExportManifestTest {
+
+    private File folder;
+    private File manifestFile;
+    private File exported;
+
+    @Before
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("robotbuilder-manifest").toFile();
+        manifestFile = new File(folder, "robot.yaml.java.manifest");
+        exported = new File(folder, "Robot.java");
+        Files.write(exported.toPath(), "class Robot {}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void tearDown() {
+        for (File f : folder.listFiles()) {
+            f.delete();
+        }
+        folder.delete();
+    }
+
+    @Test
+    public void upToDateAfterSave() throws IOException {
+        ExportManifest manifest = ExportManifest.load(manifestFile);
+        assertFalse("An empty manifest is never up to date", manifest.isUpToDate("input"));
+        manifest.record(exported, null);
+        manifest.save("input");
+
+        ExportManifest loaded = ExportManifest.load(manifestFile);
+        assertTrue("Same input and unchanged files should be up to date", loaded.isUpToDate("input"));
+        assertFalse("A different input should not be up to date", loaded.isUpToDate("other input"));
+    }
+
+    @Test
+    public void changedFileIsNotUpToDate() throws IOException {
+        ExportManifest manifest = ExportManifest.load(manifestFile);
+        manifest.record(exported, null);
+        manifest.save("input");
+
+        Files.write(exported.toPath(), "class Robot { int x; }".getBytes(StandardCharsets.UTF_8));
+        exported.setLastModified(exported.lastModified() + 2000);
+        assertFalse("An edited file should force an export", ExportManifest.load(manifestFile).isUpToDate("input"));
+    }
+
+    @Test
+    public void hasContents() {
+        ExportManifest manifest = ExportManifest.load(manifestFile);
+        String same = ExportManifest.hash("class Robot {}".getBytes(StandardCharsets.UTF_8));
+        String different = ExportManifest.hash("class Robot { }".getBytes(StandardCharsets.UTF_8));
+        assertTrue(manifest.hasContents(exported, same));
+        assertFalse(manifest.hasContents(exported, different));
+        assertFalse(manifest.hasContents(new File(folder, "Missing.java"), same));
+    }
+}
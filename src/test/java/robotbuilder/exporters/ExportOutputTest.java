@@ -0,0 +1,119 @@
+package robotbuilder.exporters;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.extensions.Extensions;
+import robotbuilder.robottree.RobotTree;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compares the code exported for the test robot with the code that was
+ * exported for it before exports were indexed, cached and parallel. The
+ * expected code is under {@code export-baseline} in the test resources.
+ */
+public class ExportOutputTest {
+
+    private static final File WORKSPACE = new File("test-resources/ExportOutput/");
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    @Before
+    public void setUp() {
+        TestUtils.delete(WORKSPACE);
+        WORKSPACE.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        TestUtils.delete(WORKSPACE);
+    }
+
+    /**
+     * Exports the test robot into a folder of the workspace.
+     *
+     * @return The exported project.
+     */
+    private static File export(String exporterName, int threads, String folder) throws Exception {
+        File workspace = new File(WORKSPACE, folder);
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.getRoot().setName("ExportOutputProject");
+        tree.getRoot().getProperty("Eclipse Workspace").setValueAndUpdate(workspace.getAbsolutePath());
+        tree.getRoot().getProperty("Java Package").setValueAndUpdate("robotcode");
+        GenericExporter exporter = new GenericExporter("/export/" + exporterName + "/");
+        exporter.setIncremental(false);
+        exporter.setExportThreads(threads);
+        exporter.exportFiles(tree);
+        return new File(workspace, "ExportOutputProject");
+    }
+
+    private static List<Path> listFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                    .map(directory::relativize)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Asserts that two directories hold the same files with the same contents.
+     */
+    private static void assertSameFiles(Path expected, Path actual) throws IOException {
+        List<Path> files = listFiles(expected);
+        assertEquals("Exported files", files, listFiles(actual));
+        for (Path file : files) {
+            assertEquals(file.toString(),
+                    new String(Files.readAllBytes(expected.resolve(file)), "UTF-8"),
+                    new String(Files.readAllBytes(actual.resolve(file)), "UTF-8"));
+        }
+    }
+
+    private static Path baseline(String exporterName) throws Exception {
+        return Paths.get(ExportOutputTest.class.getResource("/export-baseline/" + exporterName).toURI());
+    }
+
+    /**
+     * Exports on one thread and on many, which must give the same files.
+     */
+    private static void assertParallelMatchesSerial(String exporterName) throws Exception {
+        Path serial = export(exporterName, 1, "serial").toPath();
+        for (int run = 0; run < 5; run++) {
+            assertSameFiles(serial, export(exporterName, 8, "parallel" + run).toPath());
+        }
+    }
+
+    @Test
+    public void javaExportMatchesTheBaseline() throws Exception {
+        assertSameFiles(baseline("java"), export("java", 1, "serial").toPath());
+    }
+
+    @Test
+    public void cppExportMatchesTheBaseline() throws Exception {
+        assertSameFiles(baseline("cpp"), export("cpp", 1, "serial").toPath());
+    }
+
+    @Test
+    public void javaExportIsTheSameInParallel() throws Exception {
+        assertParallelMatchesSerial("java");
+    }
+
+    @Test
+    public void cppExportIsTheSameInParallel() throws Exception {
+        assertParallelMatchesSerial("cpp");
+    }
+}
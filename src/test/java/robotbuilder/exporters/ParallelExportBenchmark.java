@@ -0,0 +1,66 @@
+package robotbuilder.exporters;
+
+import org.junit.*;
+import robotbuilder.TestUtils;
+import robotbuilder.data.RobotComponent;
+import robotbuilder.extensions.Extensions;
+import robotbuilder.robottree.RobotTree;
+
+import java.io.File;
+
+/**
+ * Measures how the parallel export scales with the number of threads on a
+ * robot with 30 subsystems and 150 commands.
+ */
+public class ParallelExportBenchmark {
+
+    private static final int SUBSYSTEMS = 30;
+    private static final int COMMANDS = 150;
+    private static final int RUNS = 5;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+    }
+
+    @Test
+    @Ignore("Benchmark, run manually")
+    public void scaleWithThreads() throws Exception {
+        File workspace = new File("test-resources/ParallelExportBenchmark/");
+        TestUtils.delete(workspace);
+        workspace.mkdirs();
+
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.getRoot().setName("ParallelExportBenchmark");
+        tree.getRoot().getProperty("Eclipse Workspace").setValueAndUpdate(workspace.getAbsolutePath());
+        tree.getRoot().getProperty("Java Package").setValueAndUpdate("robotcode");
+        RobotComponent subsystems = tree.getRoot().getChildren().elementAt(0);
+        RobotComponent commands = tree.getRoot().getChildren().elementAt(2);
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            subsystems.add(new RobotComponent("Benchmark Subsystem " + i, "Subsystem", tree));
+        }
+        for (int i = 0; i < COMMANDS; i++) {
+            commands.add(new RobotComponent("Benchmark Command " + i, "Command", tree));
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("threads  best (ms)  speedup");
+        double single = 0;
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            GenericExporter exporter = new GenericExporter("/export/java/");
+            exporter.setExportThreads(threads);
+            exporter.exportFiles(tree); // warm up the template cache and the JIT
+            long best = Long.MAX_VALUE;
+            for (int run = 0; run < RUNS; run++) {
+                long start = System.nanoTime();
+                exporter.exportFiles(tree);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            double millis = best / 1e6;
+            if (threads == 1) {
+                single = millis;
+            }
+            System.out.printf("%7d  %9.1f  %6.2fx%n", threads, millis, single / millis);
+        }
+    }
+}
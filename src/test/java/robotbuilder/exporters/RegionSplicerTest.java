@@ -0,0 +1,67 @@
+package robotbuilder.exporters;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link RegionSplicer}.
+ */
+public class RegionSplicerTest {
+
+    private static String begin(String id) {
+        return "// BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=" + id;
+    }
+
+    private static String end(String id) {
+        return "// END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=" + id;
+    }
+
+    private RegionSplicer splicer;
+
+    @Before
+    public void setUp() {
+        splicer = new RegionSplicer();
+        splicer.addRegion("imports", begin("IMPORTS"), end("IMPORTS"), () -> "import a.B;");
+        splicer.addRegion("declarations", begin("DECLARATIONS"), end("DECLARATIONS"), () -> "    int $x;\n    int y;");
+    }
+
+    @Test
+    public void replacesEveryRegion() {
+        String file = begin("IMPORTS") + "\r\nold\r\n" + end("IMPORTS") + "\r\n"
+                + "class A {\r\n    " + begin("DECLARATIONS") + "\r\n    old\r\n    " + end("DECLARATIONS") + "\r\n}\r\n";
+        String expected = begin("IMPORTS") + "\r\nimport a.B;\r\n    " + end("IMPORTS") + "\r\n"
+                + "class A {\r\n    " + begin("DECLARATIONS") + "\r\n    int $x;\r\n    int y;\r\n    " + end("DECLARATIONS") + "\r\n}\r\n";
+        assertEquals(expected, splicer.splice(file));
+        assertTrue(splicer.getProblems().isEmpty());
+    }
+
+    @Test
+    public void normalizesLineEndings() {
+        String file = "a\nb\rc\r\n" + begin("IMPORTS") + "\nold\n" + end("IMPORTS") + "\n"
+                + begin("DECLARATIONS") + end("DECLARATIONS");
+        String spliced = splicer.splice(file);
+        assertFalse("Lone \\n should be converted", spliced.matches("(?s).*[^\r]\n.*"));
+        assertTrue(spliced.startsWith("a\r\nb\r\nc\r\n"));
+    }
+
+    @Test
+    public void reportsMissingAndDuplicatedRegions() {
+        String file = begin("IMPORTS") + "\r\n" + end("IMPORTS") + "\r\n"
+                + begin("IMPORTS") + "\r\n" + end("IMPORTS") + "\r\n";
+        splicer.splice(file);
+        assertEquals(2, splicer.getProblems().size());
+        assertTrue(splicer.getProblems().get(0).contains("appears 2 times"));
+        assertTrue(splicer.getProblems().get(1).contains("declarations"));
+    }
+
+    @Test
+    public void leavesUnterminatedRegionAlone() {
+        String file = begin("IMPORTS") + "\r\nkeep me\r\n"
+                + begin("DECLARATIONS") + "\r\nold\r\n" + end("DECLARATIONS") + "\r\n";
+        String spliced = splicer.splice(file);
+        assertTrue(spliced.contains("keep me"));
+        assertTrue(spliced.contains("int y;"));
+        assertTrue(splicer.getProblems().get(0).startsWith("No end marker"));
+    }
+}
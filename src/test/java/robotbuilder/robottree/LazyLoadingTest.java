@@ -0,0 +1,76 @@
+package robotbuilder.robottree;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.data.RobotComponent;
+import robotbuilder.extensions.Extensions;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for loading robots lazily, see {@link RobotTree#setLazyLoading}.
+ */
+public class LazyLoadingTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    private static RobotComponent child(RobotComponent parent, String name) {
+        for (RobotComponent child : parent.getChildren()) {
+            if (child.getName().equals(name)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void componentsAreLoadedWhenNeeded() throws Exception {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.isRobotValid();
+        tree.load(tree.encode());
+        String expected = tree.encode();
+
+        tree.setLazyLoading(true);
+        try {
+            tree.load(expected);
+            RobotComponent subsystems = tree.getRoot().getChildren().elementAt(0);
+            for (RobotComponent child : subsystems.getChildren()) {
+                assertFalse(child.getName() + " should not be loaded yet", child.isLoaded());
+            }
+            assertTrue("Names of unloaded components are in use", tree.hasName("Drive Train Gyro"));
+            assertTrue(tree.getRoot().getChildrenOfTypeNames("Subsystem").contains("Drive Train"));
+
+            assertNotNull(tree.getComponentByName("Drive Train Gyro"));
+            assertTrue(child(subsystems, "Drive Train").isLoaded());
+            assertFalse("Only the subsystem with the gyro is loaded", child(subsystems, "Arm").isLoaded());
+
+            RobotComponent restored = RobotSnapshot.read(RobotSnapshot.write(tree.getRoot()), tree);
+            RobotComponent restoredSubsystems = restored.getChildren().elementAt(0);
+            assertTrue(child(restoredSubsystems, "Drive Train").isLoaded());
+            assertFalse("Snapshots keep unloaded components unloaded", child(restoredSubsystems, "Arm").isLoaded());
+
+            File saveFile = File.createTempFile("robotbuilder-test-lazy", ".yml");
+            try {
+                tree.saveInBackground(saveFile.getAbsolutePath()).get();
+                assertFalse("Saving doesn't load anything", child(subsystems, "Arm").isLoaded());
+                assertEquals(expected, new String(Files.readAllBytes(saveFile.toPath()), StandardCharsets.UTF_8));
+            } finally {
+                saveFile.delete();
+            }
+
+            assertEquals(expected, tree.encode());
+            assertTrue(child(subsystems, "Arm").isLoaded());
+        } finally {
+            tree.setLazyLoading(false);
+        }
+    }
+}
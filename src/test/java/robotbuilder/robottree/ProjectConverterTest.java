@@ -0,0 +1,88 @@
+package robotbuilder.robottree;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.extensions.Extensions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the converter on the command line, in its own JVM without a screen.
+ */
+public class ProjectConverterTest {
+
+    private File directory;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("robotbuilder-test-convert").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        TestUtils.delete(directory);
+    }
+
+    /**
+     * Runs the converter with the classpath of the tests.
+     *
+     * @return The exit code.
+     */
+    private int runHeadless(String... args) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<String> command = new ArrayList<>(Arrays.asList(java, "-Djava.awt.headless=true",
+                "-cp", System.getProperty("java.class.path"), ProjectConverter.class.getName()));
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(new File(directory, "output.txt"))
+                .start();
+        return process.waitFor();
+    }
+
+    private String printed() throws IOException {
+        return new String(Files.readAllBytes(new File(directory, "output.txt").toPath()), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void convertsBothWaysWithoutAScreen() throws Exception {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.isRobotValid();
+        File saveFile = new File(directory, "robot.yaml");
+        tree.save(saveFile.getAbsolutePath());
+        File project = new File(directory, "project");
+        File converted = new File(directory, "converted.yaml");
+
+        int exitCode = runHeadless(saveFile.getAbsolutePath(), project.getAbsolutePath());
+        assertEquals(printed(), ProjectConverter.EXIT_SUCCESS, exitCode);
+        assertTrue(printed(), new File(project, "subsystems/Drive Train.yaml").isFile());
+        exitCode = runHeadless(project.getAbsolutePath(), converted.getAbsolutePath());
+        assertEquals(printed(), ProjectConverter.EXIT_SUCCESS, exitCode);
+        assertEquals("The project converts back to the same save file",
+                new String(Files.readAllBytes(saveFile.toPath()), StandardCharsets.UTF_8),
+                new String(Files.readAllBytes(converted.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void missingRobotsAreReported() throws Exception {
+        File missing = new File(directory, "missing.yaml");
+        int exitCode = runHeadless(missing.getAbsolutePath(), new File(directory, "project").getAbsolutePath());
+        assertEquals(printed(), ProjectConverter.EXIT_FAILURE, exitCode);
+        assertTrue(printed(), printed().contains("FAILED " + missing));
+    }
+}
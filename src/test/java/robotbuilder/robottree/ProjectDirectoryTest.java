@@ -0,0 +1,81 @@
+package robotbuilder.robottree;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.data.RobotComponent;
+import robotbuilder.extensions.Extensions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ProjectDirectory}.
+ */
+public class ProjectDirectoryTest {
+
+    private File directory;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("robotbuilder-test-project").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        TestUtils.delete(directory);
+    }
+
+    @Test
+    public void projectLoadsAsTheSameRobot() throws Exception {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.isRobotValid();
+        String expected = tree.encode();
+        tree.saveAsProject(directory).get();
+
+        assertTrue(new File(directory, ProjectDirectory.MANIFEST).isFile());
+        assertTrue(new File(directory, "oi.yaml").isFile());
+        assertTrue(new File(directory, "subsystems/Drive Train.yaml").isFile());
+        assertTrue(new File(directory, "commands/Autonomous Command.yaml").isFile());
+
+        tree.load(new File(directory, ProjectDirectory.MANIFEST));
+        assertEquals("Loaded project should be identical to the save file.", expected, tree.encode());
+    }
+
+    @Test
+    public void onlyChangedFilesAreWritten() throws Exception {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.isRobotValid();
+        File manifest = new File(directory, ProjectDirectory.MANIFEST);
+        ProjectDirectory project = new ProjectDirectory();
+        List<String> written = project.write(tree.getRoot(), manifest);
+        assertTrue(written.containsAll(Arrays.asList(ProjectDirectory.MANIFEST, "subsystems/Arm.yaml", "subsystems/Wrist.yaml")));
+
+        assertEquals(Collections.emptyList(), project.write(tree.getRoot(), manifest));
+
+        tree.getComponentByName("Arm PID Controller").getProperty("P").setValueAndUpdate(3);
+        assertEquals(Collections.singletonList("subsystems/Arm.yaml"), project.write(tree.getRoot(), manifest));
+
+        RobotComponent wrist = tree.getComponentByName("Wrist");
+        tree.delete(wrist);
+        assertEquals(Collections.singletonList(ProjectDirectory.MANIFEST), project.write(tree.getRoot(), manifest));
+        assertFalse(new File(directory, "subsystems/Wrist.yaml").exists());
+
+        ProjectDirectory reloaded = new ProjectDirectory();
+        reloaded.read(manifest);
+        assertEquals("Nothing changed since the project was read",
+                Collections.emptyList(), reloaded.write(tree.getRoot(), manifest));
+    }
+}
@@ -0,0 +1,108 @@
+package robotbuilder.robottree;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.data.RobotComponent;
+import robotbuilder.extensions.Extensions;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link RobotDelta}.
+ */
+public class RobotDeltaTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    @Test
+    public void propertyChangesAreUndoneInPlace() {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.takeSnapshot();
+        String before = tree.encode();
+        RobotComponent pid = tree.getComponentByName("Arm PID Controller");
+        pid.getProperty("P").setValueAndUpdate(3);
+        String after = tree.encode();
+        assertNotEquals(before, after);
+
+        tree.undo();
+        assertEquals(before, tree.encode());
+        assertSame("Undo should change the component, not rebuild it",
+                pid, tree.getComponentByName("Arm PID Controller"));
+        tree.redo();
+        assertEquals(after, tree.encode());
+        assertSame(pid, tree.getComponentByName("Arm PID Controller"));
+    }
+
+    @Test
+    public void deletedComponentsComeBack() {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.takeSnapshot();
+        String before = tree.encode();
+        RobotComponent driveTrain = tree.getComponentByName("Drive Train");
+        tree.delete(tree.getComponentByName("Wrist"));
+        tree.takeSnapshot();
+        String after = tree.encode();
+        assertFalse(tree.hasName("Wrist"));
+
+        tree.undo();
+        assertEquals(before, tree.encode());
+        assertTrue(tree.hasName("Wrist"));
+        assertSame("Only the deleted component is put back", driveTrain, tree.getComponentByName("Drive Train"));
+        tree.redo();
+        assertEquals(after, tree.encode());
+        assertFalse(tree.hasName("Wrist"));
+    }
+
+    @Test
+    public void unchangedRobotHasNoDelta() {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.takeSnapshot();
+        int undoSize = tree.getHistory().getUndoSize();
+        tree.takeSnapshot();
+        assertEquals(undoSize, tree.getHistory().getUndoSize());
+    }
+
+    @Test
+    public void budgetForgetsTheOldestChanges() {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.takeSnapshot();
+        RobotComponent pid = tree.getComponentByName("Arm PID Controller");
+        try {
+            tree.setUndoBudget(1);
+            for (int i = 0; i < 10; i++) {
+                pid.getProperty("P").setValueAndUpdate(10 + i);
+            }
+            assertEquals("Only the current state fits", 0, tree.getHistory().getUndoSize());
+        } finally {
+            tree.setUndoBudget(RobotTree.DEFAULT_UNDO_BUDGET);
+        }
+    }
+
+    @Test
+    public void compressedDeltasAreUndone() throws Exception {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.getHistory().setTiers(RobotDelta.CODEC, 0, 0);
+        tree.takeSnapshot();
+        String before = tree.encode();
+        tree.getComponentByName("Arm PID Controller").getProperty("P").setValueAndUpdate(3);
+        tree.delete(tree.getComponentByName("Wrist"));
+        tree.takeSnapshot();
+        String after = tree.encode();
+
+        RobotDelta delta = tree.getHistory().getCurrentState();
+        byte[] encoded = RobotDelta.CODEC.encode(delta);
+        assertArrayEquals(encoded, RobotDelta.CODEC.encode(RobotDelta.CODEC.decode(encoded)));
+
+        tree.undo();
+        tree.undo();
+        assertEquals(before, tree.encode());
+        tree.redo();
+        tree.redo();
+        assertEquals(after, tree.encode());
+    }
+}
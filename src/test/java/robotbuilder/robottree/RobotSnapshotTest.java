@@ -0,0 +1,98 @@
+package robotbuilder.robottree;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.data.RobotComponent;
+import robotbuilder.extensions.Extensions;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link RobotSnapshot}.
+ */
+public class RobotSnapshotTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    @Test
+    public void snapshotRoundTrips() throws IOException {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.isRobotValid();
+        String before = tree.encode();
+        byte[] snapshot = RobotSnapshot.write(tree.getRoot());
+        RobotComponent restored = RobotSnapshot.read(snapshot, tree);
+        assertEquals("Restored robot should be identical.", tree.getRoot(), restored);
+        assertArrayEquals("Snapshots should be stable.", snapshot, RobotSnapshot.write(restored));
+        assertEquals(before, tree.encode());
+    }
+
+    @Test
+    public void snapshotsKeepSharedValues() throws IOException {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.isRobotValid();
+        String expected = tree.encode(); // Subsystems share their constants, presets are their default
+        RobotComponent restored = RobotSnapshot.read(RobotSnapshot.write(tree.getRoot()), null);
+        File saveFile = File.createTempFile("robotbuilder-test-snapshot", ".yml");
+        try {
+            SaveWorker.writeYaml(restored, saveFile);
+            assertEquals(expected, new String(Files.readAllBytes(saveFile.toPath()), StandardCharsets.UTF_8));
+        } finally {
+            saveFile.delete();
+        }
+    }
+
+    @Test
+    public void undoRestoresSnapshots() {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.takeSnapshot();
+        String before = tree.encode();
+        RobotComponent subsystems = tree.getRoot().getChildren().elementAt(0);
+        subsystems.add(new RobotComponent("Snapshot Subsystem", "Subsystem", tree));
+        tree.takeSnapshot();
+        String after = tree.encode();
+        tree.undo();
+        assertEquals(before, tree.encode());
+        tree.redo();
+        assertEquals(after, tree.encode());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsOtherData() throws IOException {
+        RobotSnapshot.read("Version 0.0.1\n---\n".getBytes("UTF-8"), TestUtils.getNewRobotTree());
+    }
+
+    @Test
+    public void snapshotFileIsUsedWhileUpToDate() throws IOException, InterruptedException {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.isRobotValid();
+        File saveFile = File.createTempFile("robotbuilder-test-snapshot", ".yml");
+        File snapshotFile = RobotSnapshot.getSnapshotFile(saveFile);
+        try {
+            tree.setFileSnapshots(true);
+            tree.save(saveFile.getAbsolutePath());
+            assertTrue("Snapshot should be written with the save file.", snapshotFile.isFile());
+            RobotComponent before = tree.getRoot();
+            assertEquals(before, RobotSnapshot.readFile(saveFile, tree));
+
+            tree.load(saveFile);
+            assertEquals("Loaded robot should be identical to the saved one.", before, tree.getRoot());
+
+            assertTrue(saveFile.setLastModified(saveFile.lastModified() + 2000));
+            assertNull("Snapshot of a changed save file should be ignored.", RobotSnapshot.readFile(saveFile, tree));
+        } finally {
+            tree.setFileSnapshots(false);
+            saveFile.delete();
+            snapshotFile.delete();
+        }
+    }
+}
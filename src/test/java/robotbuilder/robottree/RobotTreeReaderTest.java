@@ -0,0 +1,66 @@
+package robotbuilder.robottree;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.data.RobotComponent;
+import robotbuilder.extensions.Extensions;
+
+import java.io.StringReader;
+import java.util.Iterator;
+
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link RobotTreeReader}.
+ */
+public class RobotTreeReaderTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    private static Node robotDocument(String saved) {
+        Iterator<Node> docs = new Yaml().composeAll(new StringReader(saved)).iterator();
+        // The iterator only reads the next document when asked if there is one
+        assertTrue(docs.hasNext());
+        docs.next();
+        assertTrue(docs.hasNext());
+        return docs.next();
+    }
+
+    @Test
+    public void readsTheSavedRobot() {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.isRobotValid();
+        RobotComponent loaded = new RobotTreeReader(tree, false).read(robotDocument(tree.encode()));
+        assertEquals("Read robot should be identical to the saved robot.", tree.getRoot(), loaded);
+    }
+
+    @Test
+    public void propertiesNotInThePaletteAreNotConstructed() {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.isRobotValid();
+        MappingNode root = (MappingNode) robotDocument(tree.encode());
+        for (NodeTuple field : root.getValue()) {
+            if (((ScalarNode) field.getKeyNode()).getValue().equals("Properties")) {
+                // Constructing this would fail, there is no such class
+                Node stale = new Yaml().compose(new StringReader("!!robotbuilder.NoSuchProperty {value: 1}"));
+                ((MappingNode) field.getValueNode()).getValue().add(
+                        new NodeTuple(new Yaml().compose(new StringReader("Old Property")), stale));
+            }
+        }
+
+        RobotComponent loaded = new RobotTreeReader(tree, false).read(root);
+        assertNull(loaded.getProperty("Old Property"));
+        assertEquals(tree.getRoot(), loaded);
+    }
+}
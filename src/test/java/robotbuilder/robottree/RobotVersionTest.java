@@ -0,0 +1,82 @@
+package robotbuilder.robottree;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.data.RobotComponent;
+import robotbuilder.extensions.Extensions;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link RobotVersion}.
+ */
+public class RobotVersionTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    @Test
+    public void untouchedSubtreesAreShared() {
+        RobotTree tree = TestUtils.generateTestTree();
+        RobotDelta.Recorder recorder = new RobotDelta.Recorder();
+        recorder.reset(tree.getRoot());
+        RobotVersion before = recorder.getVersion();
+        assertSame("Nothing changed", before, recorder.peek(tree.getRoot()));
+
+        tree.getComponentByName("Arm PID Controller").getProperty("P").setValue(3);
+        RobotVersion after = recorder.peek(tree.getRoot());
+        assertNotSame(before, after);
+        int changed = 0;
+        for (int i = 0; i < before.getChildren().size(); i++) {
+            if (before.getChildren().get(i) != after.getChildren().get(i)) {
+                changed++;
+            }
+        }
+        assertEquals("Only the folder with the subsystems should be copied", 1, changed);
+    }
+
+    @Test
+    public void builtComponentsKnowTheirParents() {
+        RobotTree tree = TestUtils.generateTestTree();
+        RobotComponent built = RobotVersion.of(tree.getRoot()).build();
+        RobotComponent button = findByName(built, "Arm Up Button");
+        assertNotNull(button);
+        assertEquals("Left Joystick", button.getProperty("Joystick").getValue());
+    }
+
+    private static RobotComponent findByName(RobotComponent root, String name) {
+        RobotComponent[] found = new RobotComponent[1];
+        root.walk(component -> {
+            if (component.getName().equals(name)) {
+                found[0] = component;
+            }
+        });
+        return found[0];
+    }
+
+    @Test
+    public void oldVersionsDontChange() throws Exception {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.isRobotValid();
+        String expected = tree.encode();
+        RobotVersion version = RobotVersion.of(tree.getRoot());
+        tree.getComponentByName("Arm PID Controller").getProperty("P").setValueAndUpdate(3);
+        tree.delete(tree.getComponentByName("Wrist"));
+
+        File saveFile = File.createTempFile("robotbuilder-test-version", ".yml");
+        try {
+            SaveWorker.writeYaml(version.build(), saveFile);
+            assertEquals(expected, new String(Files.readAllBytes(saveFile.toPath()), StandardCharsets.UTF_8));
+        } finally {
+            saveFile.delete();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package robotbuilder.robottree;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.extensions.Extensions;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SaveWorker}.
+ */
+public class SaveWorkerTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    @Test
+    public void backgroundSaveWritesTheSameFile() throws Exception {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.isRobotValid();
+        File saveFile = File.createTempFile("robotbuilder-test-save", ".yml");
+        try {
+            String expected = tree.encode();
+            tree.saveInBackground(saveFile.getAbsolutePath()).get();
+            assertEquals(expected, new String(Files.readAllBytes(saveFile.toPath()), StandardCharsets.UTF_8));
+        } finally {
+            saveFile.delete();
+        }
+    }
+
+    @Test
+    public void autosavesAreMerged() throws Exception {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.isRobotValid();
+        File recovery = File.createTempFile("robotbuilder-test-recovery", ".yml");
+        try {
+            SaveWorker worker = new SaveWorker();
+            worker.autosave(RobotVersion.of(TestUtils.getNewRobotTree().getRoot()), recovery);
+            tree = TestUtils.generateTestTree();
+            String expected = tree.encode();
+            worker.autosave(RobotVersion.of(tree.getRoot()), recovery);
+            worker.finish();
+            assertEquals("The newest autosave should win.",
+                    expected, new String(Files.readAllBytes(recovery.toPath()), StandardCharsets.UTF_8));
+        } finally {
+            recovery.delete();
+        }
+    }
+}
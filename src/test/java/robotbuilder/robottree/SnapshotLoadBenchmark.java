@@ -0,0 +1,85 @@
+package robotbuilder.robottree;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.data.RobotComponent;
+import robotbuilder.extensions.Extensions;
+
+import java.io.File;
+
+/**
+ * Compares loading a robot with 2,000 components from its YAML save file and
+ * from its binary snapshot.
+ */
+public class SnapshotLoadBenchmark {
+
+    private static final int SUBSYSTEMS = 200;
+    private static final int CONTROLLERS_PER_SUBSYSTEM = 6;
+    private static final int GYROS_PER_SUBSYSTEM = 3;
+    private static final int RUNS = 5;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    @Test
+    @Ignore("Benchmark, run manually")
+    public void compareLoadTimes() throws Exception {
+        RobotTree tree = TestUtils.getNewRobotTree();
+        RobotComponent subsystems = tree.getRoot().getChildren().elementAt(0);
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            RobotComponent subsystem = new RobotComponent("Benchmark Subsystem " + i, "Subsystem", tree);
+            subsystems.add(subsystem);
+            for (int j = 0; j < CONTROLLERS_PER_SUBSYSTEM; j++) {
+                RobotComponent controller = new RobotComponent("Controller " + j, "Speed Controller", tree);
+                controller.setProperty("Type", "Victor");
+                subsystem.add(controller);
+            }
+            for (int j = 0; j < GYROS_PER_SUBSYSTEM; j++) {
+                subsystem.add(new RobotComponent("Gyro " + j, "AnalogGyro", tree));
+            }
+        }
+        int[] components = {0};
+        tree.walk(component -> components[0]++);
+        System.out.println("Components: " + components[0]);
+
+        File saveFile = File.createTempFile("robotbuilder-snapshot-benchmark", ".yml");
+        File snapshotFile = RobotSnapshot.getSnapshotFile(saveFile);
+        try {
+            tree.setFileSnapshots(true);
+            tree.save(saveFile.getAbsolutePath());
+            byte[] snapshot = RobotSnapshot.write(tree.getRoot());
+            System.out.printf("YAML: %d bytes, snapshot: %d bytes%n", saveFile.length(), snapshot.length);
+
+            tree.setFileSnapshots(false);
+            System.out.printf("YAML load:     %8.1f ms%n", best(() -> tree.load(saveFile)));
+            tree.setFileSnapshots(true);
+            System.out.printf("Snapshot load: %8.1f ms%n", best(() -> tree.load(saveFile)));
+            System.out.printf("Snapshot save: %8.1f ms%n", best(() -> RobotSnapshot.write(tree.getRoot())));
+            System.out.printf("YAML encode:   %8.1f ms%n", best(tree::encode));
+        } finally {
+            tree.setFileSnapshots(false);
+            saveFile.delete();
+            snapshotFile.delete();
+        }
+    }
+
+    private interface Action {
+
+        void run() throws Exception;
+    }
+
+    private static double best(Action action) throws Exception {
+        action.run(); // warm up the JIT
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            action.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+}
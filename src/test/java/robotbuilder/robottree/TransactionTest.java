@@ -0,0 +1,72 @@
+package robotbuilder.robottree;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.data.RobotComponent;
+import robotbuilder.extensions.Extensions;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for transactions and coalescing in {@link RobotTree}.
+ */
+public class TransactionTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    @Test
+    public void nestedTransactionsAreOneUndoStep() {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.takeSnapshot();
+        String before = tree.encode();
+        RobotComponent pid = tree.getComponentByName("Arm PID Controller");
+
+        tree.transaction(() -> {
+            pid.getProperty("P").setValueAndUpdate(3);
+            tree.transaction(() -> pid.getProperty("I").setValueAndUpdate(4));
+            tree.delete(tree.getComponentByName("Wrist"));
+            tree.takeSnapshot();
+            assertTrue(tree.isInTransaction());
+        });
+        assertFalse(tree.isInTransaction());
+        String after = tree.encode();
+        assertNotEquals(before, after);
+
+        tree.undo();
+        assertEquals(before, tree.encode());
+        tree.redo();
+        assertEquals(after, tree.encode());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void committingWithoutATransactionFails() {
+        TestUtils.getNewRobotTree().commitTransaction();
+    }
+
+    @Test
+    public void rapidEditsOfAValueCoalesce() {
+        RobotTree tree = TestUtils.generateTestTree();
+        tree.setCoalesceWindow(60000);
+        try {
+            tree.takeSnapshot();
+            String before = tree.encode();
+            RobotComponent pid = tree.getComponentByName("Arm PID Controller");
+            for (int p = 1; p <= 5; p++) {
+                pid.getProperty("P").setValueAndUpdate(p);
+            }
+            String after = tree.encode();
+
+            tree.undo();
+            assertEquals("Typing a value should be undone in one step", before, tree.encode());
+            tree.redo();
+            assertEquals(after, tree.encode());
+        } finally {
+            tree.setCoalesceWindow(500);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package robotbuilder.robottree;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.data.RobotComponent;
+import robotbuilder.extensions.Extensions;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the validity kept by {@link RobotTree} follows edits.
+ */
+public class ValidationCacheTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    @Test
+    public void testConflictsAreNoticed() {
+        RobotTree tree = TestUtils.getNewRobotTree();
+        RobotComponent subsystems = (RobotComponent) tree.getRoot().getChildren().elementAt(0);
+        RobotComponent subsystem = new RobotComponent("Subsystem", "Subsystem", tree);
+        subsystems.add(subsystem);
+        RobotComponent victor1 = new RobotComponent("Victor 1", "Speed Controller", tree);
+        subsystem.add(victor1);
+        RobotComponent victor2 = new RobotComponent("Victor 2", "Speed Controller", tree);
+        subsystem.add(victor2);
+        assertTrue(tree.isRobotValid());
+
+        victor2.getProperty("Output Channel (PWM)").setValueAndUpdate("0");
+        assertFalse("Victor 2 took the channel of Victor 1", tree.isRobotValid());
+        assertTrue(tree.isValid(victor1));
+        assertFalse(tree.isValid(victor2));
+
+        victor2.getProperty("Output Channel (PWM)").setValueAndUpdate("1");
+        assertTrue(tree.isRobotValid());
+        assertTrue(tree.isValid(victor2));
+    }
+
+    @Test
+    public void testDeletingAConflictFixesIt() {
+        RobotTree tree = TestUtils.getNewRobotTree();
+        RobotComponent subsystems = (RobotComponent) tree.getRoot().getChildren().elementAt(0);
+        RobotComponent subsystem = new RobotComponent("Subsystem", "Subsystem", tree);
+        subsystems.add(subsystem);
+        RobotComponent victor1 = new RobotComponent("Victor 1", "Speed Controller", tree);
+        subsystem.add(victor1);
+        RobotComponent victor2 = new RobotComponent("Victor 2", "Speed Controller", tree);
+        subsystem.add(victor2);
+        victor2.getProperty("Output Channel (PWM)").setValueAndUpdate("0");
+        assertFalse(tree.isRobotValid());
+
+        tree.delete(victor2);
+        assertTrue("The conflict left with Victor 2", tree.isRobotValid());
+    }
+
+    @Test
+    public void testUndoIsNoticed() {
+        RobotTree tree = TestUtils.generateTestTree();
+        assertTrue(tree.isRobotValid());
+        tree.takeSnapshot();
+        RobotComponent leftVictor = tree.getComponentByName("Drive Train Left Victor");
+        RobotComponent rightVictor = tree.getComponentByName("Drive Train Right Victor");
+        Object channel = leftVictor.getProperty("Output Channel (PWM)").getValue();
+        Object free = rightVictor.getProperty("Output Channel (PWM)").getValue();
+        assertNotEquals(channel, free);
+        rightVictor.getProperty("Output Channel (PWM)").setValueAndUpdate(channel);
+        assertFalse("The right victor took the channel of the left one", tree.isRobotValid());
+        assertFalse(tree.isValid(rightVictor));
+
+        tree.undo();
+        assertEquals(free, rightVictor.getProperty("Output Channel (PWM)").getValue());
+        assertTrue("Undo gave the channel back", tree.isRobotValid());
+        assertTrue(tree.isValid(rightVictor));
+
+        tree.redo();
+        assertEquals(channel, rightVictor.getProperty("Output Channel (PWM)").getValue());
+        assertFalse("Redo took the channel again", tree.isRobotValid());
+        assertFalse(tree.isValid(rightVictor));
+    }
+
+    @Test
+    public void testErrorMessagesFollowEdits() {
+        RobotTree tree = TestUtils.getNewRobotTree();
+        RobotComponent subsystems = (RobotComponent) tree.getRoot().getChildren().elementAt(0);
+        RobotComponent subsystem = new RobotComponent("Subsystem", "Subsystem", tree);
+        subsystems.add(subsystem);
+        RobotComponent victor1 = new RobotComponent("Victor 1", "Speed Controller", tree);
+        subsystem.add(victor1);
+        RobotComponent victor2 = new RobotComponent("Victor 2", "Speed Controller", tree);
+        subsystem.add(victor2);
+        assertEquals("", tree.getRobotErrorMessage());
+        assertEquals("", tree.getErrorMessage(subsystems));
+
+        victor2.getProperty("Output Channel (PWM)").setValueAndUpdate("0");
+        String message = tree.getErrorMessage(subsystems);
+        assertNotEquals("", message);
+        assertEquals(subsystems.getErrorMessage(), message);
+        assertEquals(tree.getRoot().getErrorMessage(), tree.getRobotErrorMessage());
+        assertSame("Nothing changed, so the errors are kept", message, tree.getErrorMessage(subsystems));
+
+        tree.delete(victor2);
+        assertEquals("", tree.getErrorMessage(subsystems));
+        assertEquals("", tree.getRobotErrorMessage());
+    }
+}
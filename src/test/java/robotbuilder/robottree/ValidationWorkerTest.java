@@ -0,0 +1,79 @@
+package robotbuilder.robottree;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.*;
+import robotbuilder.MainFrame;
+import robotbuilder.TestUtils;
+import robotbuilder.data.RobotComponent;
+import robotbuilder.extensions.Extensions;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that edits made on the event dispatch thread are checked in the
+ * background.
+ */
+public class ValidationWorkerTest {
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        Extensions.init();
+        MainFrame.getInstance();
+    }
+
+    /**
+     * Lets the slices that are queued run, a small robot is checked in one.
+     */
+    private static void waitForValidation() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+        });
+        SwingUtilities.invokeAndWait(() -> {
+        });
+    }
+
+    @Test
+    public void testEditsArePublished() throws Exception {
+        RobotTree tree = TestUtils.getNewRobotTree();
+        RobotComponent subsystems = (RobotComponent) tree.getRoot().getChildren().elementAt(0);
+        RobotComponent subsystem = new RobotComponent("Subsystem", "Subsystem", tree);
+        subsystems.add(subsystem);
+        RobotComponent victor1 = new RobotComponent("Victor 1", "Speed Controller", tree);
+        subsystem.add(victor1);
+        RobotComponent victor2 = new RobotComponent("Victor 2", "Speed Controller", tree);
+        subsystem.add(victor2);
+        Object channel = victor1.getProperty("Output Channel (PWM)").getValue();
+        Object free = victor2.getProperty("Output Channel (PWM)").getValue();
+
+        SwingUtilities.invokeAndWait(() -> victor2.getProperty("Output Channel (PWM)").setValueAndUpdate(channel));
+        waitForValidation();
+        assertTrue(tree.wasValid(victor1));
+        assertFalse("Victor 2 took the channel of Victor 1", tree.wasValid(victor2));
+        assertFalse(tree.wasLoadedRobotValid());
+
+        SwingUtilities.invokeAndWait(() -> victor2.getProperty("Output Channel (PWM)").setValueAndUpdate(free));
+        waitForValidation();
+        assertTrue(tree.wasValid(victor2));
+        assertTrue(tree.wasLoadedRobotValid());
+    }
+
+    @Test
+    public void testDeletingIsPublished() throws Exception {
+        RobotTree tree = TestUtils.getNewRobotTree();
+        RobotComponent subsystems = (RobotComponent) tree.getRoot().getChildren().elementAt(0);
+        RobotComponent subsystem = new RobotComponent("Subsystem", "Subsystem", tree);
+        subsystems.add(subsystem);
+        RobotComponent victor1 = new RobotComponent("Victor 1", "Speed Controller", tree);
+        subsystem.add(victor1);
+        RobotComponent victor2 = new RobotComponent("Victor 2", "Speed Controller", tree);
+        subsystem.add(victor2);
+        Object channel = victor1.getProperty("Output Channel (PWM)").getValue();
+        SwingUtilities.invokeAndWait(() -> victor2.getProperty("Output Channel (PWM)").setValueAndUpdate(channel));
+        waitForValidation();
+        assertFalse(tree.wasLoadedRobotValid());
+
+        SwingUtilities.invokeAndWait(() -> tree.delete(victor2));
+        waitForValidation();
+        assertTrue("The conflict left with Victor 2", tree.wasLoadedRobotValid());
+    }
+}
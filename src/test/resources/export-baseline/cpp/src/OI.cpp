@@ -0,0 +1,53 @@
+// RobotBuilder Version: 2.0
+//
+// This file was generated by RobotBuilder. It contains sections of
+// code that are automatically generated and assigned by robotbuilder.
+// These sections will be updated in the future when you export to
+// C++ from RobotBuilder. Do not put any code or make any change in
+// the blocks indicating autogenerated code or it will be lost on an
+// update. Deleting the comments indicating the section will prevent
+// it from being updated in the future.
+
+
+#include "OI.h"
+
+// BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=INCLUDES
+#include "SmartDashboard/SmartDashboard.h"
+#include "Commands/ArmUp.h"
+#include "Commands/Autonomous.h"
+#include "Commands/AutonomousCommand.h"
+#include "Commands/TankDrive.h"
+
+// END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=INCLUDES
+
+OI::OI() {
+    // Process operator interface input here.
+    // BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=CONSTRUCTORS
+    rightJoystick.reset(new Joystick(1));
+    
+    autonomousButton.reset(new JoystickButton(rightJoystick.get(), 1));
+    autonomousButton->WhenPressed(new Autonomous());
+    leftJoystick.reset(new Joystick(0));
+    
+    armUpButton.reset(new JoystickButton(leftJoystick.get(), 1));
+    armUpButton->WhileHeld(new ArmUp());
+
+    // SmartDashboard Buttons
+    SmartDashboard::PutData("Autonomous Command", new AutonomousCommand());
+    SmartDashboard::PutData("Autonomous", new Autonomous());
+    SmartDashboard::PutData("Arm Up", new ArmUp());
+    SmartDashboard::PutData("Tank Drive", new TankDrive());
+    // END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=CONSTRUCTORS
+}
+
+// BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=FUNCTIONS
+
+std::shared_ptr<Joystick> OI::getLeftJoystick() {
+   return leftJoystick;
+}
+
+std::shared_ptr<Joystick> OI::getRightJoystick() {
+   return rightJoystick;
+}
+
+// END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=FUNCTIONS
@@ -0,0 +1,73 @@
+// RobotBuilder Version: 2.0
+//
+// This file was generated by RobotBuilder. It contains sections of
+// code that are automatically generated and assigned by robotbuilder.
+// These sections will be updated in the future when you export to
+// C++ from RobotBuilder. Do not put any code or make any change in
+// the blocks indicating autogenerated code or it will be lost on an
+// update. Deleting the comments indicating the section will prevent
+// it from being updated in the future.
+
+
+// BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=INCLUDES
+#include "RobotMap.h"
+#include "LiveWindow/LiveWindow.h"
+// END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=INCLUDES
+
+// BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=ALLOCATION
+std::shared_ptr<SpeedController> RobotMap::driveTrainLeftVictor;
+std::shared_ptr<SpeedController> RobotMap::driveTrainRightVictor;
+std::shared_ptr<RobotDrive> RobotMap::driveTrainRobotDrive;
+std::shared_ptr<AnalogGyro> RobotMap::driveTrainGyro;
+std::shared_ptr<SpeedController> RobotMap::armMotor;
+std::shared_ptr<Encoder> RobotMap::armEncoder;
+std::shared_ptr<PIDController> RobotMap::armPIDController;
+std::shared_ptr<DigitalInput> RobotMap::armLimit;
+std::shared_ptr<SpeedController> RobotMap::wristMotor;
+std::shared_ptr<AnalogPotentiometer> RobotMap::wristPot;
+// END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=ALLOCATION
+
+void RobotMap::init() {
+    // BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=CONSTRUCTORS
+    LiveWindow *lw = LiveWindow::GetInstance();
+
+    driveTrainLeftVictor.reset(new Victor(0));
+    lw->AddActuator("Drive Train", "Left Victor", std::static_pointer_cast<Victor>(driveTrainLeftVictor));
+    
+    driveTrainRightVictor.reset(new Victor(1));
+    lw->AddActuator("Drive Train", "Right Victor", std::static_pointer_cast<Victor>(driveTrainRightVictor));
+    
+    driveTrainRobotDrive.reset(new RobotDrive(driveTrainLeftVictor, driveTrainRightVictor));
+    
+    driveTrainRobotDrive->SetSafetyEnabled(false);
+        driveTrainRobotDrive->SetExpiration(0.1);
+        driveTrainRobotDrive->SetSensitivity(0.25);
+        driveTrainRobotDrive->SetMaxOutput(1.0);
+        driveTrainRobotDrive->SetInvertedMotor(RobotDrive::kRearLeftMotor, true);
+    driveTrainGyro.reset(new AnalogGyro(0));
+    lw->AddSensor("Drive Train", "Gyro", driveTrainGyro);
+    driveTrainGyro->SetSensitivity(2.33);
+    armMotor.reset(new Jaguar(2));
+    lw->AddActuator("Arm", "Motor", std::static_pointer_cast<Jaguar>(armMotor));
+    
+    armEncoder.reset(new Encoder(0, 1, false, Encoder::k4X));
+    lw->AddSensor("Arm", "Encoder", armEncoder);
+    armEncoder->SetDistancePerPulse(24.0);
+    armEncoder->SetPIDSourceType(PIDSourceType::kDisplacement);
+    armPIDController.reset(new PIDController(2.0, 1.0, -1.0,/* F: 0.0, */ armEncoder.get(), armMotor.get(), 0.02));
+    lw->AddActuator("Arm", "PID Controller", armPIDController);
+    armPIDController->SetContinuous(true); armPIDController->SetAbsoluteTolerance(0.2); 
+        armPIDController->SetInputRange(0.0, 5.0);
+        armPIDController->SetOutputRange(-1.0, 1.0);
+    armLimit.reset(new DigitalInput(2));
+    lw->AddSensor("Arm", "Limit", armLimit);
+    
+    wristMotor.reset(new Jaguar(3));
+    lw->AddActuator("Wrist", "Motor", std::static_pointer_cast<Jaguar>(wristMotor));
+    
+    wristPot.reset(new AnalogPotentiometer(1, 1.0, 0.0));
+    lw->AddSensor("Wrist", "Pot", wristPot);
+    
+
+    // END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=CONSTRUCTORS
+}
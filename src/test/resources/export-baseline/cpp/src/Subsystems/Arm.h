@@ -0,0 +1,39 @@
+// RobotBuilder Version: 2.0
+//
+// This file was generated by RobotBuilder. It contains sections of
+// code that are automatically generated and assigned by robotbuilder.
+// These sections will be updated in the future when you export to
+// C++ from RobotBuilder. Do not put any code or make any change in
+// the blocks indicating autogenerated code or it will be lost on an
+// update. Deleting the comments indicating the section will prevent
+// it from being updated in the future.
+
+
+#ifndef ARM_H
+#define ARM_H
+#include "Commands/Subsystem.h"
+#include "WPILib.h"
+
+/**
+ *
+ *
+ * @author ExampleAuthor
+ */
+class Arm: public Subsystem {
+private:
+	// It's desirable that everything possible is private except
+	// for methods that implement subsystem capabilities
+	// BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=DECLARATIONS
+	std::shared_ptr<SpeedController> motor;
+	std::shared_ptr<Encoder> encoder;
+	std::shared_ptr<PIDController> pIDController;
+	std::shared_ptr<DigitalInput> limit;
+	// END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=DECLARATIONS
+public:
+	Arm();
+	void InitDefaultCommand();
+	// BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=CONSTANTS
+	// END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=CONSTANTS
+};
+
+#endif
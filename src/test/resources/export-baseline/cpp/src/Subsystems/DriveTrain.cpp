@@ -0,0 +1,44 @@
+// RobotBuilder Version: 2.0
+//
+// This file was generated by RobotBuilder. It contains sections of
+// code that are automatically generated and assigned by robotbuilder.
+// These sections will be updated in the future when you export to
+// C++ from RobotBuilder. Do not put any code or make any change in
+// the blocks indicating autogenerated code or it will be lost on an
+// update. Deleting the comments indicating the section will prevent
+// it from being updated in the future.
+
+
+
+
+#include "DriveTrain.h"
+#include "../RobotMap.h"
+// BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=INCLUDES
+#include "../Commands/TankDrive.h"
+// END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=INCLUDES
+
+// BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=CONSTANTS
+// END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=CONSTANTS
+
+DriveTrain::DriveTrain() : Subsystem("DriveTrain") {
+    // BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=DECLARATIONS
+    leftVictor = RobotMap::driveTrainLeftVictor;
+    rightVictor = RobotMap::driveTrainRightVictor;
+    robotDrive = RobotMap::driveTrainRobotDrive;
+    gyro = RobotMap::driveTrainGyro;
+    // END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=DECLARATIONS
+}
+
+void DriveTrain::InitDefaultCommand() {
+    // Set the default command for a subsystem here.
+    // SetDefaultCommand(new MySpecialCommand());
+    // BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=DEFAULT_COMMAND
+
+        SetDefaultCommand(new TankDrive());
+    // END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=DEFAULT_COMMAND
+}
+
+
+// Put methods for controlling this subsystem
+// here. Call these from Commands.
+
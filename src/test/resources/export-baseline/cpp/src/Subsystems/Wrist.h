@@ -0,0 +1,37 @@
+// RobotBuilder Version: 2.0
+//
+// This file was generated by RobotBuilder. It contains sections of
+// code that are automatically generated and assigned by robotbuilder.
+// These sections will be updated in the future when you export to
+// C++ from RobotBuilder. Do not put any code or make any change in
+// the blocks indicating autogenerated code or it will be lost on an
+// update. Deleting the comments indicating the section will prevent
+// it from being updated in the future.
+
+
+#ifndef WRIST_H
+#define WRIST_H
+
+#include "Commands/PIDSubsystem.h"
+#include "WPILib.h"
+
+/**
+ *
+ *
+ * @author ExampleAuthor
+ */
+class Wrist: public PIDSubsystem {
+ public:
+	// BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=DECLARATIONS
+	std::shared_ptr<SpeedController> motor;
+	std::shared_ptr<AnalogPotentiometer> pot;
+	// END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=DECLARATIONS
+	Wrist();
+	double ReturnPIDInput();
+	void UsePIDOutput(double output);
+	void InitDefaultCommand();
+	// BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=CONSTANTS
+	// END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=CONSTANTS
+};
+
+#endif
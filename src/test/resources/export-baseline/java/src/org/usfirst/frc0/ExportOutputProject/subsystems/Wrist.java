@@ -0,0 +1,85 @@
+// RobotBuilder Version: 2.0
+//
+// This file was generated by RobotBuilder. It contains sections of
+// code that are automatically generated and assigned by robotbuilder.
+// These sections will be updated in the future when you export to
+// Java from RobotBuilder. Do not put any code or make any change in
+// the blocks indicating autogenerated code or it will be lost on an
+// update. Deleting the comments indicating the section will prevent
+// it from being updated in the future.
+
+
+package org.usfirst.frc0.ExportOutputProject.subsystems;
+
+import org.usfirst.frc0.ExportOutputProject.RobotMap;
+import org.usfirst.frc0.ExportOutputProject.commands.*;
+import edu.wpi.first.wpilibj.AnalogPotentiometer;
+import edu.wpi.first.wpilibj.Jaguar;
+import edu.wpi.first.wpilibj.SpeedController;
+
+import edu.wpi.first.wpilibj.command.PIDSubsystem;
+import edu.wpi.first.wpilibj.livewindow.LiveWindow;
+
+/**
+ *
+ */
+public class Wrist extends PIDSubsystem {
+
+    // BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=CONSTANTS
+
+    // END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=CONSTANTS
+
+    // BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=DECLARATIONS
+    private final SpeedController motor = RobotMap.wristMotor;
+    private final AnalogPotentiometer pot = RobotMap.wristPot;
+
+    // END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=DECLARATIONS
+
+    // Initialize your subsystem here
+    public Wrist() {
+        // BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=PID
+        super("Wrist", 2.0, 1.0, -1.0);
+        setAbsoluteTolerance(0.2);
+        getPIDController().setContinuous(true);
+        LiveWindow.addActuator("Wrist", "PIDSubsystem Controller", getPIDController());
+        getPIDController().setInputRange(0.0, 5.0);
+
+        // END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=PID
+
+        // Use these to get going:
+        // setSetpoint() -  Sets where the PID controller should move the system
+        //                  to
+        // enable() - Enables the PID controller.
+    }
+
+    public void initDefaultCommand() {
+        // BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=DEFAULT_COMMAND
+
+
+        // END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=DEFAULT_COMMAND
+
+        // Set the default command for a subsystem here.
+        //setDefaultCommand(new MySpecialCommand());
+    }
+
+    protected double returnPIDInput() {
+        // Return your input value for the PID loop
+        // e.g. a sensor, like a potentiometer:
+        // yourPot.getAverageVoltage() / kYourMaxVoltage;
+
+        // BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=SOURCE
+        return pot.get();
+
+        // END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=SOURCE
+    }
+
+    protected void usePIDOutput(double output) {
+        // Use output to drive your system, like a motor
+        // e.g. yourMotor.set(output);
+
+        // BEGIN AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=OUTPUT
+        motor.pidWrite(output);
+
+        // END AUTOGENERATED CODE, SOURCE=ROBOTBUILDER ID=OUTPUT
+    }
+}